@@ -0,0 +1,186 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import org.usfirst.frc.team25.scouting.data.models.Autonomous;
+import org.usfirst.frc.team25.scouting.data.models.PostMatch;
+import org.usfirst.frc.team25.scouting.data.models.PreMatch;
+import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
+import org.usfirst.frc.team25.scouting.data.models.TeleOp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark that compares the accuracy and speed of the simulation samplers on three synthetic alliances. For each
+ * alliance, a 4,000,000-iteration pseudorandom simulation serves as the reference, and the root-mean-square errors of
+ * the tele-op points standard deviation and of the rocket ranking point chance are measured over many seeds at
+ * several iteration counts. The errors are also averaged over the alliances.
+ * <p>
+ * Run with <code>gradle samplerBenchmark</code>, optionally passing the number of seeds (200 by default) with
+ * <code>--args</code>.
+ */
+public class SamplerBenchmark {
+
+    private static final int DEFAULT_NUM_SEEDS = 200;
+    private static final int REFERENCE_ITERATIONS = 4_000_000;
+    private static final long REFERENCE_SEED = 99;
+    private static final int[] ITERATION_COUNTS = {125, 250, 500, 1000, 2000, 4000};
+
+    /**
+     * Synthetic event of 5 teams with 24 matches each, generated from a fixed seed
+     */
+    private static final long ENTRY_SEED = 7;
+    private static final int FIRST_TEAM = 25, NUM_TEAMS = 5, NUM_ENTRIES = 120;
+    private static final int[][] ALLIANCES = {{25, 26, 27}, {28, 29, 25}, {26, 28, 29}};
+
+    /**
+     * Game pieces placed during the sandstorm period in every simulation, in the order of the
+     * <code>AllianceSimulation</code> constructor
+     */
+    private static final double[] SANDSTORM_PLACEMENTS = {0.5, 0.3, 0.5, 0.4};
+
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUM_SEEDS;
+
+        EventReport eventReport = new EventReport(generateEntries(), "benchmark", new File("."));
+        eventReport.processEntries();
+
+        SimulationSampler[] samplers = {new PseudoRandomSampler(), new HaltonSampler()};
+        double[][][] stdDevErrors = new double[ALLIANCES.length][samplers.length][ITERATION_COUNTS.length];
+        double[][][] chanceErrors = new double[ALLIANCES.length][samplers.length][ITERATION_COUNTS.length];
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            for (int a = 0; a < ALLIANCES.length; a++) {
+                TeamReport[] teamReports = new TeamReport[3];
+                for (int i = 0; i < 3; i++) {
+                    teamReports[i] = eventReport.getTeamReport(ALLIANCES[a][i]);
+                }
+
+                AllianceSimulation.Result reference = createSimulation(teamReports, REFERENCE_SEED,
+                        new PseudoRandomSampler(), pool).simulate(REFERENCE_ITERATIONS);
+                double referenceStdDev = reference.getStandardDeviation(AllianceSimulation.TELE_POINTS);
+                double referenceChance = reference.getRocketRpChance();
+
+                System.out.printf("Alliance %s: reference standard deviation %.4f, rocket RP chance %.4f%n",
+                        Arrays.toString(ALLIANCES[a]), referenceStdDev, referenceChance);
+
+                for (int s = 0; s < samplers.length; s++) {
+                    for (int n = 0; n < ITERATION_COUNTS.length; n++) {
+                        double sumSquareStdDevErrors = 0, sumSquareChanceErrors = 0;
+                        long startTime = System.nanoTime();
+
+                        for (int seed = 1; seed <= numSeeds; seed++) {
+                            AllianceSimulation.Result result = createSimulation(teamReports, seed * 7919L,
+                                    samplers[s], null).simulate(ITERATION_COUNTS[n]);
+                            sumSquareStdDevErrors += Math.pow(
+                                    result.getStandardDeviation(AllianceSimulation.TELE_POINTS) - referenceStdDev, 2);
+                            sumSquareChanceErrors += Math.pow(result.getRocketRpChance() - referenceChance, 2);
+                        }
+
+                        stdDevErrors[a][s][n] = Math.sqrt(sumSquareStdDevErrors / numSeeds);
+                        chanceErrors[a][s][n] = Math.sqrt(sumSquareChanceErrors / numSeeds);
+                        printErrors(samplers[s], ITERATION_COUNTS[n], stdDevErrors[a][s][n], chanceErrors[a][s][n],
+                                (System.nanoTime() - startTime) / 1e6 / numSeeds);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Mean of the alliances:");
+        for (int s = 0; s < samplers.length; s++) {
+            for (int n = 0; n < ITERATION_COUNTS.length; n++) {
+                double stdDevError = 0, chanceError = 0;
+                for (int a = 0; a < ALLIANCES.length; a++) {
+                    stdDevError += stdDevErrors[a][s][n] / ALLIANCES.length;
+                    chanceError += chanceErrors[a][s][n] / ALLIANCES.length;
+                }
+                printErrors(samplers[s], ITERATION_COUNTS[n], stdDevError, chanceError, Double.NaN);
+            }
+        }
+    }
+
+    private static void printErrors(SimulationSampler sampler, int numIterations, double stdDevError,
+                                    double chanceError, double millisPerRun) {
+        System.out.printf("  %-20s n=%5d  standard deviation RMSE %.4f  rocket RP RMSE %.4f", sampler.getClass()
+                .getSimpleName(), numIterations, stdDevError, chanceError);
+        System.out.println(Double.isNaN(millisPerRun) ? "" : String.format("  %.3f ms", millisPerRun));
+    }
+
+    private static AllianceSimulation createSimulation(TeamReport[] teamReports, long seed, SimulationSampler sampler,
+                                                       ForkJoinPool pool) {
+        return new AllianceSimulation(teamReports, SANDSTORM_PLACEMENTS[0], SANDSTORM_PLACEMENTS[1],
+                SANDSTORM_PLACEMENTS[2], SANDSTORM_PLACEMENTS[3], seed, sampler, pool);
+    }
+
+    /**
+     * Generates the scout entries of the synthetic event. Each count is drawn uniformly from 0 to 3 (0 to 1 for rocket
+     * levels), each boolean is a coin flip, climb levels are drawn from 1 to 3, and 10% of entries are no shows.
+     *
+     * @return Scout entries of the teams, in match order
+     */
+    private static ArrayList<ScoutEntry> generateEntries() {
+        Random random = new Random(ENTRY_SEED);
+        ArrayList<ScoutEntry> entries = new ArrayList<>();
+
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            // Values are drawn in alphabetical order of the metrics' setters, so the event stays the same
+            Autonomous sandstorm = new Autonomous(0, 0, 0, 0, 0, 0, false, false, false, false, false, false, false,
+                    false);
+            sandstorm.setCargoDropped(random.nextInt(4));
+            sandstorm.setCargoDroppedCargoShip(random.nextBoolean());
+            sandstorm.setCargoDroppedRocket(random.nextBoolean());
+            sandstorm.setCargoShipCargo(random.nextInt(4));
+            sandstorm.setCargoShipHatches(random.nextInt(4));
+            sandstorm.setCrossHabLine(random.nextBoolean());
+            sandstorm.setFrontCargoShipHatchCapable(random.nextBoolean());
+            sandstorm.setHatchesDropped(random.nextInt(4));
+            sandstorm.setHatchesDroppedCargoShip(random.nextBoolean());
+            sandstorm.setHatchesDroppedRocket(random.nextBoolean());
+            sandstorm.setOpponentCargoShipLineFoul(random.nextBoolean());
+            sandstorm.setRocketCargo(random.nextInt(4));
+            sandstorm.setRocketHatches(random.nextInt(4));
+            sandstorm.setSideCargoShipHatchCapable(random.nextBoolean());
+
+            TeleOp teleOp = new TeleOp(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, false, 0, false, 0, false, 0, 0, 0, 0);
+            teleOp.setAssistingClimbTeamNum(random.nextInt(4));
+            teleOp.setAttemptHabClimb(random.nextBoolean());
+            teleOp.setCargoDropped(random.nextInt(4));
+            teleOp.setCargoShipCargo(random.nextInt(4));
+            teleOp.setCargoShipHatches(random.nextInt(4));
+            teleOp.setClimbAssistedByPartner(random.nextBoolean());
+            teleOp.setHatchesDropped(random.nextInt(4));
+            teleOp.setNumPartnerClimbAssists(random.nextInt(4));
+            teleOp.setSuccessHabClimb(random.nextBoolean());
+
+            teleOp.setRocketLevelOneHatches(random.nextInt(2));
+            teleOp.setRocketLevelOneCargo(random.nextInt(2));
+            teleOp.setRocketLevelTwoHatches(random.nextInt(2));
+            teleOp.setRocketLevelTwoCargo(random.nextInt(2));
+            teleOp.setRocketLevelThreeHatches(random.nextInt(2));
+            teleOp.setRocketLevelThreeCargo(random.nextInt(2));
+            teleOp.setAttemptHabClimbLevel(1 + random.nextInt(3));
+            teleOp.setSuccessHabClimbLevel(1 + random.nextInt(3));
+            teleOp.setPartnerClimbAssistEndLevel(1 + random.nextInt(3));
+
+            boolean robotNoShow = random.nextInt(10) == 0;
+            int startingLevel = 1 + random.nextInt(2);
+            PreMatch preMatch = new PreMatch("A", "Red 1", "Left", 1 + i / NUM_TEAMS, FIRST_TEAM + i % NUM_TEAMS,
+                    startingLevel, robotNoShow, "Cargo");
+
+            HashMap<String, Boolean> quickComments = new HashMap<>();
+            quickComments.put("Tipped over", false);
+            quickComments.put("Lost communications", false);
+            PostMatch postMatch = new PostMatch("", quickComments, "", 0, 0, "", 0);
+
+            entries.add(new ScoutEntry(preMatch, sandstorm, teleOp, postMatch));
+        }
+
+        return entries;
+    }
+}
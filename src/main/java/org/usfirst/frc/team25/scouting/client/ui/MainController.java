@@ -1,5 +1,6 @@
 package org.usfirst.frc.team25.scouting.client.ui;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -14,6 +15,9 @@ import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for main.fxml
@@ -27,7 +31,8 @@ public class MainController {
     @FXML
     private Text dataDirectoryDisplay;
     @FXML
-    private CheckBox combineJson, generatePicklists, generateCsv, fixErrors, backupJson, generatePredictions;
+    private CheckBox combineJson, generatePicklists, generateCsv, fixErrors, backupJson, generatePredictions,
+            compressJson;
     @FXML
     private RadioButton teamBasedReport, allianceBasedReport, teamEventsDownload, eventDownload, matchBasedReport;
     @FXML
@@ -39,6 +44,17 @@ public class MainController {
     private EventReport eventReport;
     private String eventName;
 
+    /**
+     * Watches the current data directory so that only changed data files are parsed when the event report is
+     * refreshed
+     */
+    private DataDirectoryWatcher dataWatcher;
+
+    /**
+     * Policy used to resolve scout entries that appear in more than one data file
+     */
+    private final EntryDeduplicator.Policy deduplicationPolicy = EntryDeduplicator.Policy.KEEP_NEWEST;
+
     private ArrayList<File> jsonFileList;
     private File currentDataDirectory;
 
@@ -129,6 +145,15 @@ public class MainController {
                 addStatus(currentDataDirectory.getAbsolutePath() + " retained as data directory");
             }
         } else {
+            if (currentDataDirectory != null && !currentDataDirectory.equals(selectedDirectory)) {
+                // The previous directory is no longer looked up, so its index and watch are released
+                DataDirectoryIndex.remove(currentDataDirectory);
+                if (dataWatcher != null) {
+                    dataWatcher.close();
+                    dataWatcher = null;
+                }
+            }
+
             currentDataDirectory = selectedDirectory;
             addStatus(selectedDirectory.getAbsolutePath() + " selected as data directory");
             dataDirectoryDisplay.setText(selectedDirectory.getAbsolutePath());
@@ -142,7 +167,8 @@ public class MainController {
 
     /**
      * Retrieves JSON data files from the selected data directory and converts them into an EventReport for data
-     * processing
+     * processing. If an EventReport was already built for the directory, only data files that changed since then are
+     * parsed and applied to it.
      */
     private void retrieveEventReport() {
 
@@ -154,13 +180,54 @@ public class MainController {
             return;
         }
 
+        File teamNameList = FileManager.getTeamNameList(currentDataDirectory);
+
+        if (eventReport != null && dataWatcher != null && dataWatcher.getDirectory().equals(currentDataDirectory)) {
+            if (teamNameList != null) {
+                eventReport.setTeamNameList(teamNameList);
+            }
+
+            int filesChanged = dataWatcher.applyChanges(eventReport);
+            if (filesChanged > 0) {
+                addStatus(filesChanged + " changed JSON data file(s) loaded");
+                addDeduplicationStatus(dataWatcher.getDeduplicationReport());
+            }
+            return;
+        }
+
         // This assumes the JSON files have not been renamed from the app or client output
-        eventName = jsonFileList.get(0).getName().split(FileManager.FILE_EXTENSION_REGEX)[0].split(" - ")[2];
+        // Event keys never contain periods, so this also strips multi-part extensions like ".json.gz"
+        eventName = jsonFileList.get(0).getName().split(" - ")[2].split("\\.")[0];
+
+        if (dataWatcher != null) {
+            dataWatcher.close();
+        }
+
+        LinkedHashMap<File, Long> parseTimes = new LinkedHashMap<>();
+        ArrayList<ScoutEntry> scoutEntries;
+
+        try {
+            ArrayList<File> failedFiles = new ArrayList<>();
+            dataWatcher = new DataDirectoryWatcher(currentDataDirectory, deduplicationPolicy);
+            scoutEntries = dataWatcher.loadAll(parseTimes, failedFiles);
+            addStatus(generateParseTimeStatus(parseTimes));
+            addFailedFilesStatus(failedFiles);
+            addDeduplicationStatus(dataWatcher.getDeduplicationReport());
+        } catch (IOException e) {
+            e.printStackTrace();
+            dataWatcher = null;
+
+            ArrayList<File> failedFiles = new ArrayList<>();
+            EntryDeduplicator deduplicator = EntryDeduplicator.deduplicate(
+                    FileManager.deserializeDataByFile(jsonFileList, parseTimes, failedFiles), deduplicationPolicy);
+            scoutEntries = deduplicator.getEntries();
+            addStatus(generateParseTimeStatus(parseTimes));
+            addFailedFilesStatus(failedFiles);
+            addDeduplicationStatus(deduplicator.getReport());
+        }
 
-        ArrayList<ScoutEntry> scoutEntries = FileManager.deserializeData(jsonFileList);
         eventReport = new EventReport(scoutEntries, eventName, currentDataDirectory);
 
-        File teamNameList = FileManager.getTeamNameList(currentDataDirectory);
         if (teamNameList != null) {
             eventReport.setTeamNameList(teamNameList);
         }
@@ -169,65 +236,126 @@ public class MainController {
     }
 
     /**
-     * Generates picklists, JSON files, inaccuracy lists, etc. in accordance to the user-checked boxes
+     * Displays the report of duplicate scout entries that were dropped, if there were any
+     *
+     * @param deduplicationReport Report generated by an <code>EntryDeduplicator</code>
+     */
+    private void addDeduplicationStatus(String deduplicationReport) {
+        if (!deduplicationReport.isEmpty()) {
+            addStatus(deduplicationReport);
+        }
+    }
+
+    /**
+     * Displays the JSON data files that could not be read or are malformed, if there were any
+     *
+     * @param failedFiles Data files that failed to parse
+     */
+    private void addFailedFilesStatus(List<File> failedFiles) {
+        if (failedFiles.isEmpty()) {
+            return;
+        }
+
+        StringBuilder status = new StringBuilder("Could not fully parse " + failedFiles.size() +
+                " JSON data file(s), which may be incomplete or still copying:");
+        for (File file : failedFiles) {
+            status.append("\n").append(file.getName());
+        }
+        addStatus(status.toString());
+    }
+
+    /**
+     * Generates a status message listing how long each JSON data file took to parse
+     *
+     * @param parseTimes Map of data files and their parse times, in milliseconds
+     * @return Status message with one line per data file
+     */
+    private String generateParseTimeStatus(LinkedHashMap<File, Long> parseTimes) {
+        StringBuilder status = new StringBuilder("Parsed " + parseTimes.size() + " JSON data file(s):");
+
+        for (File file : parseTimes.keySet()) {
+            status.append("\n").append(file.getName()).append(" (").append(parseTimes.get(file)).append(" ms)");
+        }
+
+        return status.toString();
+    }
+
+    /**
+     * Generates picklists, JSON files, inaccuracy lists, etc. in accordance to the user-checked boxes.
+     * Files are written on the output thread, and the status is displayed once all of them are complete.
      */
     private void generateFiles() {
 
-        String status = "";
+        // Status lines of each selected option, in order, completed once the option's files are written
+        ArrayList<CompletableFuture<String>> statuses = new ArrayList<>();
         retrieveEventReport();
 
         if (backupJson.isSelected()) {
             if (FileManager.createBackup(jsonFileList, currentDataDirectory)) {
-                status += "\nBackup JSON files created";
+                statuses.add(CompletableFuture.completedFuture("\nBackup JSON files created"));
             } else {
-                status += "\nJSON file backup failed";
+                statuses.add(CompletableFuture.completedFuture("\nJSON file backup failed"));
             }
         }
 
         if (fixErrors.isSelected()) {
             InaccuracyFixer fixer = new InaccuracyFixer(eventReport);
             if (fixer.fixInaccuraciesTBA()) {
-                fixer.saveInaccuracyList(currentDataDirectory);
-                status += "\nInaccuracies fixed and inaccuracy list generated";
+                statuses.add(fixer.saveInaccuracyList(currentDataDirectory).thenApply(written -> written ?
+                        "\nInaccuracies fixed and inaccuracy list generated" :
+                        "\nInaccuracies fixed, but inaccuracy list failed to generate"));
             } else {
-                status += "\nNo inaccuracies found or Internet unavailable";
+                statuses.add(CompletableFuture.completedFuture("\nNo inaccuracies found or Internet unavailable"));
             }
         }
 
-        if (combineJson.isSelected() && eventReport.generateCombineJson(currentDataDirectory)) {
-            status += "\nCombined data JSON file generated";
-
-            if (FileManager.deleteIndividualDataFiles(currentDataDirectory)) {
-                status += "\nIndividual data JSON files deleted";
-            }
+        if (combineJson.isSelected()) {
+            statuses.add(eventReport.generateCombineJson(currentDataDirectory, compressJson.isSelected())
+                    .thenApply(written -> {
+                        if (!written) {
+                            return "\nCombined data JSON file failed to generate";
+                        }
+
+                        // Individual files are only deleted once the combined file is completely written
+                        String status = "\nCombined data JSON file generated";
+                        if (FileManager.deleteIndividualDataFiles(currentDataDirectory)) {
+                            status += "\nIndividual data JSON files deleted";
+                        }
+                        return status;
+                    }));
         }
 
         if (generateCsv.isSelected()) {
-            if (eventReport.generateRawSpreadsheet(currentDataDirectory)) {
-                status += "\nRaw data spreadsheet generated";
-            } else {
-                status += "\nRaw data spreadsheet failed to generate. Is the CSV file currently open?";
-            }
+            statuses.add(eventReport.generateRawSpreadsheet(currentDataDirectory).thenApply(written -> written ?
+                    "\nRaw data spreadsheet generated" :
+                    "\nRaw data spreadsheet failed to generate. Is the CSV file currently open?"));
         }
 
         if (generatePicklists.isSelected()) {
-            eventReport.generatePicklists(currentDataDirectory, new int[]{25});
-            status += "\nPicklists generated";
+            statuses.add(eventReport.generatePicklists(currentDataDirectory, new int[]{25}).thenApply(written ->
+                    written ? "\nPicklists generated" : "\nPicklist generation failed"));
         }
 
         if (generatePredictions.isSelected()) {
-            if (eventReport.generateMatchPredictions(currentDataDirectory)) {
-                status += "\nFuture match predictions generated";
-            } else {
-                status += "\nMatch prediction generation failed";
-            }
+            statuses.add(eventReport.generateMatchPredictions(currentDataDirectory).thenApply(written -> written ?
+                    "\nFuture match predictions generated" : "\nMatch prediction generation failed"));
         }
 
-        if (status.isEmpty()) {
+        if (statuses.isEmpty()) {
             addStatus("Please select data processing options!");
-        } else {
-            addStatus("Data processing for event " + eventName + " successful:\n" + status);
+            return;
         }
+
+        CompletableFuture.allOf(statuses.toArray(new CompletableFuture[0])).whenComplete((result, exception) -> {
+            StringBuilder status = new StringBuilder();
+            for (CompletableFuture<String> optionStatus : statuses) {
+                status.append(optionStatus.isCompletedExceptionally() ? "\nFile generation failed" :
+                        optionStatus.join());
+            }
+
+            // Callbacks run on the output thread, but the status box can only be updated on the FX thread
+            Platform.runLater(() -> addStatus("Data processing for event " + eventName + " successful:\n" + status));
+        });
     }
 
     /**
@@ -242,7 +370,12 @@ public class MainController {
             try {
                 int teamNum = Integer.parseInt(analysisTeamOne.getText());
                 if (!eventReport.isTeamPlaying(teamNum)) {
-                    addStatus("Invalid team number for event " + eventName + ". Please try again.");
+                    if (eventReport.getTeamDirectory().contains(teamNum)) {
+                        addStatus("No scouting data for team " + teamNum + " - " +
+                                eventReport.getTeamDirectory().getTeamName(teamNum) + ". Please try again.");
+                    } else {
+                        addStatus("Invalid team number for event " + eventName + ". Please try again.");
+                    }
                 } else {
                     addStatus(eventReport.getTeamReport(teamNum).getQuickStatus());
                 }
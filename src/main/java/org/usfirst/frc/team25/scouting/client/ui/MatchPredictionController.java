@@ -2,6 +2,7 @@ package org.usfirst.frc.team25.scouting.client.ui;
 
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
+import javafx.scene.control.Tooltip;
 import javafx.scene.text.Text;
 import org.usfirst.frc.team25.scouting.data.AllianceReport;
 import org.usfirst.frc.team25.scouting.data.Stats;
@@ -72,6 +73,10 @@ public class MatchPredictionController {
                 setText(color, "team" + numStrNames[i] + "Cargo",
                         displayDouble(currentTeam.getAverage("totalCargo")));
 
+                // Distributions of game pieces are shown when hovering over the averages
+                setTooltip(color, "team" + numStrNames[i] + "Hatches", displayQuantiles(currentTeam, "totalHatches"));
+                setTooltip(color, "team" + numStrNames[i] + "Cargo", displayQuantiles(currentTeam, "totalCargo"));
+
                 // Generate display string for starting position and HAB crossing percentage
                 String startString = "";
                 char assignedGamePiece = alliance.getBestSandstormGamePieceCombo().charAt(i);
@@ -113,6 +118,31 @@ public class MatchPredictionController {
         ((Text) scene.lookup("#" + idName)).setText(text);
     }
 
+    /**
+     * Sets the tooltip of the UI <code>Text</code> component of the specified metric
+     *
+     * @param color      Either <code>red</code> or <code>blue</code>, corresponding to the alliance that the value
+     *                   belongs to
+     * @param metricName ID of the <code>Text</code> object, corresponding to a data metric
+     * @param text       String to display when hovering over the component
+     */
+    private void setTooltip(String color, String metricName, String text) {
+        String modifiedMetricName = Character.toUpperCase(metricName.charAt(0)) + metricName.substring(1);
+        Tooltip.install(scene.lookup("#" + color + modifiedMetricName), new Tooltip(text));
+    }
+
+    /**
+     * Generates a summary of the distribution of a team's metric
+     *
+     * @param team   Team report containing the metric
+     * @param metric Name of an averaged metric
+     * @return The median and 90th percentile of the metric
+     */
+    private String displayQuantiles(TeamReport team, String metric) {
+        return "Median: " + displayDouble(team.getQuantile(metric, 0.5)) + "\n90th percentile: " +
+                displayDouble(team.getQuantile(metric, 0.9));
+    }
+
     /**
      * Converts floating-point numbers into easily-displayable strings
      *
@@ -3,6 +3,7 @@ package org.usfirst.frc.team25.scouting.data;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class for alliance-based calculations, stats, and predictions
@@ -21,11 +22,6 @@ public class AllianceReport {
     @SuppressWarnings("FieldCanBeLocal")
     private final double NULL_HATCH_CONFIDENCE = 0.8;
 
-    /**
-     * The number of Monte Carlo simulation iterations to run to compute standard deviations of functions.
-     * A larger number of iterations generally provides greater accuracy.
-     */
-    private final int MONTE_CARLO_ITERATIONS = 1000;
     private final String[] numStrNames = new String[]{"One", "Two", "Three", "total"};
 
     /**
@@ -54,7 +50,20 @@ public class AllianceReport {
     private String bestSandstormGamePieceCombo;
 
     /**
-     * Constructs a report to simulate an in-match alliance of three teams
+     * Result of the Monte Carlo simulation of the alliance's tele-op game piece placement, shared by the standard
+     * deviations, rocket ranking point chance, and optimal null hatch panels. Simulated on first use.
+     */
+    private AllianceSimulation.Result simulationResult;
+
+    /**
+     * Settings of the Monte Carlo simulation, and pool that runs it in parallel (<code>null</code> if sequential)
+     */
+    private final SimulationSettings simulationSettings;
+    private final ForkJoinPool simulationPool;
+
+    /**
+     * Constructs a report to simulate an in-match alliance of three teams, simulating sequentially with the default
+     * settings
      *
      * @param teamReports An array of team reports that a part of the alliance. If this contains less than three team
      *                    reports, "dummy" alliance partners will be created
@@ -62,6 +71,25 @@ public class AllianceReport {
      *                              report as its first element
      */
     public AllianceReport(ArrayList<TeamReport> teamReports) {
+        this(teamReports, new SimulationSettings(), null);
+    }
+
+    /**
+     * Constructs a report to simulate an in-match alliance of three teams
+     *
+     * @param teamReports        An array of team reports that a part of the alliance. If this contains less than
+     *                           three team reports, "dummy" alliance partners will be created
+     * @param simulationSettings Settings of the Monte Carlo simulation. Reports with the same teams and settings have
+     *                           the same predictions.
+     * @param simulationPool     Pool that runs the Monte Carlo simulation in parallel, <code>null</code> to run it
+     *                           sequentially. Results do not depend on the pool.
+     * @throws NullPointerException If <code>teamReports</code> is <code>null</code> or has a <code>null</code> team
+     *                              report as its first element
+     */
+    public AllianceReport(ArrayList<TeamReport> teamReports, SimulationSettings simulationSettings,
+                          ForkJoinPool simulationPool) {
+        this.simulationSettings = simulationSettings;
+        this.simulationPool = simulationPool;
 
         this.teamReports = new TeamReport[3];
         expectedValues = new HashMap<>();
@@ -131,20 +159,18 @@ public class AllianceReport {
      * an alliance.
      */
     private void calculateExpectedValues() {
-        String[][] metricSets = new String[][]{TeamReport.autoMetricNames, TeamReport.teleMetricNames,
-                TeamReport.overallMetricNames};
-
-        String[] prefixes = new String[]{"auto", "tele", ""};
+        int[][] metricIdSets = new int[][]{TeamMetricIds.AUTO_AVERAGES, TeamMetricIds.TELE_AVERAGES,
+                TeamMetricIds.OVERALL_AVERAGES};
 
-        for (int i = 0; i < metricSets.length; i++) {
-            for (String metric : metricSets[i]) {
+        for (int[] metricIds : metricIdSets) {
+            for (int id : metricIds) {
                 double expectedValue = 0.0;
 
                 for (TeamReport report : teamReports) {
-                    expectedValue += report.getAverage(prefixes[i] + metric);
+                    expectedValue += report.getAverage(id);
                 }
 
-                expectedValues.put(prefixes[i] + metric, expectedValue);
+                expectedValues.put(TeamMetricIds.getName(id), expectedValue);
             }
         }
     }
@@ -182,9 +208,9 @@ public class AllianceReport {
             for (int i = 0; i < levelCombo.length; i++) {
                 // Multiply by attempt-success rates here to get the true expected value per team
                 if (levelCombo[i] == 1) {
-                    crossingScore += 3.0 * teamReports[i].getAttemptSuccessRate("levelOneCross");
+                    crossingScore += 3.0 * teamReports[i].getAttemptSuccessRate(TeamMetricIds.CROSSES[0]);
                 } else {
-                    crossingScore += 6.0 * teamReports[i].getAttemptSuccessRate("levelTwoCross");
+                    crossingScore += 6.0 * teamReports[i].getAttemptSuccessRate(TeamMetricIds.CROSSES[1]);
                 }
             }
 
@@ -225,16 +251,17 @@ public class AllianceReport {
             for (int i = 0; i < gamePieceCombo.length(); i++) {
                 if (gamePieceCombo.charAt(i) == 'H') {
                     // Validate assignments here
-                    if (teamReports[i].getAbility("sideCargoShipHatchSandstorm")) {
-                        cargoShipHatches += teamReports[i].getAttemptSuccessRate("hatchAutoSuccess");
-                    } else if (teamReports[i].getAbility("frontCargoShipHatchSandstorm") && frontCargoShipCount < 2) {
-                        cargoShipHatches += teamReports[i].getAttemptSuccessRate("hatchAutoSuccess");
+                    if (teamReports[i].getAbility(TeamMetricIds.SIDE_CARGO_SHIP_HATCH_SANDSTORM)) {
+                        cargoShipHatches += teamReports[i].getAttemptSuccessRate(TeamMetricIds.HATCH_AUTO_SUCCESS);
+                    } else if (teamReports[i].getAbility(TeamMetricIds.FRONT_CARGO_SHIP_HATCH_SANDSTORM)
+                            && frontCargoShipCount < 2) {
+                        cargoShipHatches += teamReports[i].getAttemptSuccessRate(TeamMetricIds.HATCH_AUTO_SUCCESS);
                         frontCargoShipCount++;
-                    } else if (teamReports[i].getAbility("rocketHatchSandstorm")) {
-                        rocketHatches += teamReports[i].getAttemptSuccessRate("hatchAutoSuccess");
+                    } else if (teamReports[i].getAbility(TeamMetricIds.ROCKET_HATCH_SANDSTORM)) {
+                        rocketHatches += teamReports[i].getAttemptSuccessRate(TeamMetricIds.HATCH_AUTO_SUCCESS);
                     }
                 } else {
-                    cargoShipCargo += teamReports[i].getAttemptSuccessRate("cargoAutoSuccess");
+                    cargoShipCargo += teamReports[i].getAttemptSuccessRate(TeamMetricIds.CARGO_AUTO_SUCCESS);
                 }
             }
 
@@ -256,120 +283,46 @@ public class AllianceReport {
     }
 
     /**
-     * Calculates and stores the predicted number of points gained from scoring game pieces during the tele-op period
-     * for an alliance
+     * Calculates and stores the predicted number of game pieces scored in each location of the field and points
+     * gained during the tele-op period for an alliance, based on the alliance's expected values
      *
      * @return The predicted number of tele-op points
      */
     private double calculatePredictedTeleOpPoints() {
-
-        double teleOpHatches = calculatePredictedTeleOpHatchPanels(false);
-        double teleOpCargo = calculatePredictedTeleOpCargo(false);
-
-        double predictedTeleOpPoints = 2 * teleOpHatches + 3 * teleOpCargo;
-
-        predictedValues.put("telePoints", predictedTeleOpPoints);
-
-        return predictedTeleOpPoints;
-    }
-
-    /**
-     * Calculates the predicted number of hatch panels scored in each location of the field during the tele-op
-     * period, based on the alliance's expected values
-     *
-     * @param rocketRp Specifies if the alliance is attempting to score as much as possible at each location, or if
-     *                 they are attempting to gain the rocket ranking point. Affects game piece cap for rocket levels.
-     * @return The predicted number of hatch panels scored during tele-op
-     */
-    private double calculatePredictedTeleOpHatchPanels(boolean rocketRp) {
-
-        double totalHatches = 0;
-
-        // Carry-over variable between rocket levels
-        double excessHatches = 0;
-
-        // Simulate placement in uppermost rocket levels first
-        for (int i = 2; i >= 0; i--) {
-            double cap = rocketRp ? 2.0 : 4.0;
-
-            if (i == 0) {
-                // Allow cargo ship hatch panels to be interchangeable with level 1 hatch panels
-                excessHatches += expectedValues.get("telecargoShipHatches");
-
-                // Decrease cap due to rocket hatches placed during the sandstorm period
-                cap = Math.max(0, cap - predictedValues.get("autoRocketHatches"));
-            }
-
-            double hatchesPut = Math.min(excessHatches + expectedValues.get("telerocketLevel" + numStrNames[i] +
-                    "Hatches"), cap);
-
-            predictedValues.put("teleRocketLevel" + numStrNames[i] + "Hatches", hatchesPut);
-            totalHatches += hatchesPut;
-            excessHatches += expectedValues.get("telerocketLevel" + numStrNames[i] + "Hatches") - hatchesPut;
+        double[] expected = new double[AllianceSimulation.NUM_EXPECTED];
+        for (int slot = 0; slot < expected.length; slot++) {
+            expected[slot] = expectedValues.get(TeamMetricIds.getName(TeamMetricIds.TELE_AVERAGES[slot]));
         }
 
-        double teleCargoShipHatches = Math.min(excessHatches, 8 - predictedValues.get("autoCargoShipHatches"));
-        totalHatches += teleCargoShipHatches;
-
-        predictedValues.put("teleCargoShipHatches", teleCargoShipHatches);
-        predictedValues.put("cargoShipHatches", teleCargoShipHatches + predictedValues.get("autoCargoShipHatches"));
-        predictedValues.put("rocketLevelOneHatches",
-                predictedValues.get("teleRocketLevelOneHatches") + predictedValues.get("autoRocketHatches"));
-
-        predictedValues.put("teleHatches", totalHatches);
-        predictedValues.put("teleHatchPoints", 2 * totalHatches);
-
-        return totalHatches;
-    }
-
-    /**
-     * Calculates the predicted number of cargo scored in each location of the field during the tele-op
-     * period, based on the alliance's expected values
-     *
-     * @param rocketRp Specifies if the alliance is attempting to score as much as possible at each location, or if
-     *                 they are attempting to gain the rocket ranking point. Affects game piece cap for rocket levels.
-     * @return The predicted number of cargo scored during tele-op
-     */
-    private double calculatePredictedTeleOpCargo(boolean rocketRp) {
-        double totalCargo = 0;
-
-        double excessCargo = 0;
-
-        for (int i = 2; i >= 0; i--) {
-            // Cap is affected by predicted tele-op hatch panels for that location
-            double cap = Math.min(rocketRp ? 2.0 : 4.0, predictedValues.get("teleRocketLevel" + numStrNames[i] +
-                    "Hatches"));
-
-            if (i == 0) {
-                // Allow cargo ship cargo to be interchangeable with level 1 cargo
-                excessCargo += expectedValues.get("telecargoShipCargo");
-                cap = Math.min(rocketRp ? 2.0 : 4.0,
-                        predictedValues.get("teleRocketLevel" + numStrNames[i] + "Hatches") + predictedValues.get(
-                                "autoRocketHatches"));
-            }
-
-            double cargoPut = Math.min(excessCargo + expectedValues.get("telerocketLevel" + numStrNames[i] + "Cargo")
-                    , cap);
+        double[] placed = new double[AllianceSimulation.NUM_PLACED];
+        AllianceSimulation.placeGamePieces(expected, predictedValues.get("autoRocketHatches"),
+                predictedValues.get("autoCargoShipHatches"), predictedValues.get("autoCargoShipCargo"), false, placed);
 
-            predictedValues.put("teleRocketLevel" + numStrNames[i] + "Cargo", cargoPut);
-            totalCargo += cargoPut;
-            excessCargo += expectedValues.get("telerocketLevel" + numStrNames[i] + "Cargo") - cargoPut;
+        for (int i = 0; i < 3; i++) {
+            predictedValues.put("teleRocketLevel" + numStrNames[i] + "Hatches",
+                    placed[AllianceSimulation.PLACED_ROCKET_HATCHES[i]]);
+            predictedValues.put("teleRocketLevel" + numStrNames[i] + "Cargo",
+                    placed[AllianceSimulation.PLACED_ROCKET_CARGO[i]]);
         }
 
-        // We do not cap by hatch panels here due to the possibility of null hatch panels
-        // We also assume that hatch panels placed during sandstorm will be placed in a bay pre-populated with cargo
-        double teleCargoShipCargo = Math.min(excessCargo,
-                8 - predictedValues.get("autoCargoShipCargo") - predictedValues.get("autoCargoShipHatches"));
-        predictedValues.put("teleCargoShipCargo", teleCargoShipCargo);
+        predictedValues.put("teleCargoShipHatches", placed[AllianceSimulation.PLACED_CARGO_SHIP_HATCHES]);
+        predictedValues.put("cargoShipHatches", placed[AllianceSimulation.PLACED_CARGO_SHIP_HATCHES] +
+                predictedValues.get("autoCargoShipHatches"));
+        predictedValues.put("rocketLevelOneHatches", placed[AllianceSimulation.PLACED_ROCKET_HATCHES[0]] +
+                predictedValues.get("autoRocketHatches"));
+        predictedValues.put("teleHatches", placed[AllianceSimulation.PLACED_HATCHES]);
+        predictedValues.put("teleHatchPoints", 2 * placed[AllianceSimulation.PLACED_HATCHES]);
 
-        totalCargo += teleCargoShipCargo;
-        predictedValues.put("teleCargo", totalCargo);
-        predictedValues.put("teleCargoPoints", 3 * totalCargo);
-        predictedValues.put("cargoShipCargo", predictedValues.get("teleCargoShipCargo") + predictedValues.get(
-                "autoCargoShipCargo"));
-        predictedValues.put("rocketLevelOneCargo", predictedValues.get("teleRocketLevelOneCargo"));
+        predictedValues.put("teleCargoShipCargo", placed[AllianceSimulation.PLACED_CARGO_SHIP_CARGO]);
+        predictedValues.put("teleCargo", placed[AllianceSimulation.PLACED_CARGO]);
+        predictedValues.put("teleCargoPoints", 3 * placed[AllianceSimulation.PLACED_CARGO]);
+        predictedValues.put("cargoShipCargo", placed[AllianceSimulation.PLACED_CARGO_SHIP_CARGO] +
+                predictedValues.get("autoCargoShipCargo"));
+        predictedValues.put("rocketLevelOneCargo", placed[AllianceSimulation.PLACED_ROCKET_CARGO[0]]);
 
-        return totalCargo;
+        predictedValues.put("telePoints", placed[AllianceSimulation.TELE_POINTS]);
+
+        return placed[AllianceSimulation.TELE_POINTS];
     }
 
     /**
@@ -396,7 +349,7 @@ public class AllianceReport {
             // Iterate through each team on the alliance
             for (int i = 0; i < climbLevelCombo.length; i++) {
                 endgamePoints += climbPointValues[climbLevelCombo[i] - 1] * teamReports[i].getAttemptSuccessRate(
-                        "level" + numStrNames[climbLevelCombo[i] - 1] + "Climb");
+                        TeamMetricIds.CLIMBS[climbLevelCombo[i] - 1]);
             }
 
             if (endgamePoints >= bestEndgamePoints) {
@@ -416,7 +369,7 @@ public class AllianceReport {
     private void calculateStandardDeviations() {
 
         double sandstormStdDev = calculateStdDevSandstormPoints();
-        double teleOpStdDev = calculateStdDevTeleOpPoints(generateMonteCarloSet(MONTE_CARLO_ITERATIONS));
+        double teleOpStdDev = calculateStdDevTeleOpPoints();
         double endgameStdDev = calculateStdDevEndgamePoints();
 
         double totalPointsStdDev = Stats.sumStandardDeviation(new double[]{sandstormStdDev, teleOpStdDev,
@@ -437,8 +390,7 @@ public class AllianceReport {
         // attempt-success rate's standard deviation
         for (int i = 0; i < bestStartingLevels.length; i++) {
             sandstormBonusVariance += Stats.multiplyVariance(bestStartingLevels[i] * 3,
-                    teamReports[i].getStandardDeviation("level" + numStrNames[bestStartingLevels[i] - 1] +
-                            "Cross"));
+                    teamReports[i].getStandardDeviation(TeamMetricIds.CROSSES[bestStartingLevels[i] - 1]));
         }
 
         // Recall that standard deviation of a metric is the square root of its variance
@@ -450,11 +402,12 @@ public class AllianceReport {
         for (int i = 0; i < bestSandstormGamePieceCombo.length(); i++) {
             if (bestSandstormGamePieceCombo.charAt(i) == 'H') {
                 sandstormGamePieceVariance += Stats.multiplyVariance(5, teamReports[i].getStandardDeviation(
-                        "hatchAutoSuccess"));
-                sandstormHatchVariance += Math.pow(teamReports[i].getStandardDeviation("hatchAutoSuccess"), 2);
+                        TeamMetricIds.HATCH_AUTO_SUCCESS));
+                sandstormHatchVariance += Math.pow(teamReports[i].getStandardDeviation(
+                        TeamMetricIds.HATCH_AUTO_SUCCESS), 2);
             } else {
                 sandstormGamePieceVariance += Stats.multiplyVariance(3, teamReports[i].getStandardDeviation(
-                        "cargoAutoSuccess"));
+                        TeamMetricIds.CARGO_AUTO_SUCCESS));
             }
         }
 
@@ -472,114 +425,48 @@ public class AllianceReport {
      * Calculates the standard deviation of all tele-op predictions, excluding those found in endgame, through a
      * simulated and randomized data set
      *
-     * @param allianceSimulationValues Set of simulated expected values for an alliance, randomly generated from a
-     *                                 Normal distribution. Each element of the set is an ArrayList with three
-     *                                 HashMaps, corresponding to the metric values of a team on the alliance. These
-     *                                 values are used to simulate the standard deviation.
-     * @return The standard deviation in the predicted number of tele-op points, given the input values
+     * @return The standard deviation in the predicted number of tele-op points
      */
-    private double calculateStdDevTeleOpPoints(ArrayList<ArrayList<HashMap<String, Double>>> allianceSimulationValues) {
-        // Builds a list of all tele-op prediction metrics
-        ArrayList<String> metricNames = new ArrayList<>();
-
-        metricNames.add("telePoints");
-
-        final String[] locations = new String[]{"teleRocketLevelOne", "teleRocketLevelTwo", "teleRocketLevelThree",
-                "teleCargoShip"};
-        final String[] pieces = new String[]{"Hatches", "Cargo"};
-
-        for (String location : locations) {
-            for (String piece : pieces) {
-                metricNames.add(location + piece);
-            }
-        }
+    private double calculateStdDevTeleOpPoints() {
+        AllianceSimulation.Result result = getSimulationResult();
 
-        // Stores arrays of raw generated values for each metric
-        HashMap<String, double[]> simulationCalculatedValues = new HashMap<>();
-
-        for (String metric : metricNames) {
-            simulationCalculatedValues.put(metric, new double[MONTE_CARLO_ITERATIONS]);
+        for (int i = 0; i < 3; i++) {
+            standardDeviations.put("teleRocketLevel" + numStrNames[i] + "Hatches",
+                    result.getStandardDeviation(AllianceSimulation.PLACED_ROCKET_HATCHES[i]));
+            standardDeviations.put("teleRocketLevel" + numStrNames[i] + "Cargo",
+                    result.getStandardDeviation(AllianceSimulation.PLACED_ROCKET_CARGO[i]));
         }
-
-        // Iterates through each set of randomly generated alliance values
-        for (int i = 0; i < allianceSimulationValues.size(); i++) {
-
-            // Temporarily replaces this class's expectedValue HashMap with simulation values
-            calculateMonteCarloExpectedValues(allianceSimulationValues.get(i));
-
-            // Recalculate predicted values
-            calculatePredictedTeleOpPoints();
-
-            // Stores this iteration's predicted values into the simulated values HashMap
-            for (String metric : metricNames) {
-                simulationCalculatedValues.get(metric)[i] = predictedValues.get(metric);
-            }
-        }
-
-        // Calculates the standard deviation of the predicted metrics, based on the variation in the results of using
-        // the 1,000 simulation values
-        for (String metric : metricNames) {
-            standardDeviations.put(metric, Stats.standardDeviation(simulationCalculatedValues.get(metric)));
-        }
-
-        //Restores values using the original alliance report
-        calculateExpectedValues();
-        calculatePredictedTeleOpPoints();
+        standardDeviations.put("teleCargoShipHatches",
+                result.getStandardDeviation(AllianceSimulation.PLACED_CARGO_SHIP_HATCHES));
+        standardDeviations.put("teleCargoShipCargo",
+                result.getStandardDeviation(AllianceSimulation.PLACED_CARGO_SHIP_CARGO));
+        standardDeviations.put("telePoints", result.getStandardDeviation(AllianceSimulation.TELE_POINTS));
 
         return standardDeviations.get("telePoints");
     }
 
     /**
-     * Replaces the values of the <code>expectedValues</code> HashMap in this class with those from a Monte
-     * Carlo-simulated alliance of three teams
+     * Gets the result of the Monte Carlo simulation of the alliance, simulating once the sandstorm predictions are
+     * calculated
      *
-     * @param testSets Set of three HashMaps, representing metric values from an alliance of three teams for a
-     *                 particular match
-     */
-    private void calculateMonteCarloExpectedValues(ArrayList<HashMap<String, Double>> testSets) {
-        // Creates a list of all average value metrics for a team, used to calculated an alliance expected value
-        String[][] metricSets = new String[][]{TeamReport.autoMetricNames, TeamReport.teleMetricNames,
-                TeamReport.overallMetricNames};
-
-        String[] prefixes = new String[]{"auto", "tele", ""};
-
-        // Iterate through various metric names
-        for (int i = 0; i < metricSets.length; i++) {
-            for (String metric : metricSets[i]) {
-                double value = 0;
-                // Iterate through each team in the alliance
-                for (HashMap<String, Double> testSet : testSets) {
-                    value += testSet.get(prefixes[i] + metric);
-                }
-                expectedValues.put(prefixes[i] + metric, value);
-            }
-        }
-    }
-
-    /**
-     * Generates a specified number of Monte Carlo simulations of match values for the teams in the current alliance
-     *
-     * @param numIterations Number of simulations to create
-     * @return An array with elements representing the result of a Monte Carlo simulation. Each simulation result is
-     * an array of three HashMaps, each representing the values of a team in a match, randomly selected from the
-     * team's Normal distribution for that metric.
-     */
-    private ArrayList<ArrayList<HashMap<String, Double>>> generateMonteCarloSet(int numIterations) {
-
-        ArrayList<ArrayList<HashMap<String, Double>>> simulationValues = new ArrayList<>();
-
-        for (int i = 0; i < numIterations; i++) {
-            // Contains the three alliances and their values in the match
-            ArrayList<HashMap<String, Double>> sampleMatchValues = new ArrayList<>();
-
-            // Generates values based on the teams that make up this AllianceReport
-            for (TeamReport sample : teamReports) {
-                sampleMatchValues.add(sample.generateRandomSample());
+     * @return Result of the simulation of the alliance's tele-op game piece placement
+     */
+    private AllianceSimulation.Result getSimulationResult() {
+        if (simulationResult == null) {
+            AllianceSimulation simulation = new AllianceSimulation(teamReports,
+                    predictedValues.get("autoRocketHatches"), predictedValues.get("autoRocketCargo"),
+                    predictedValues.get("autoCargoShipHatches"), predictedValues.get("autoCargoShipCargo"),
+                    simulationSettings.getSeed(), simulationSettings.getSampler(), simulationPool);
+
+            if (simulationSettings.isAdaptive()) {
+                simulationResult = simulation.simulateAdaptively(simulationSettings.getStdDevTolerance(),
+                        simulationSettings.getProbabilityTolerance(), simulationSettings.getMinIterations(),
+                        simulationSettings.getMaxIterations());
+            } else {
+                simulationResult = simulation.simulate(simulationSettings.getNumIterations());
             }
-            simulationValues.add(sampleMatchValues);
         }
-
-        return simulationValues;
+        return simulationResult;
     }
 
     /**
@@ -596,7 +483,7 @@ public class AllianceReport {
         // Adds the variance for each team
         for (int i = 0; i < bestClimbLevels.length; i++) {
             endgameVariance += Stats.multiplyVariance(climbPointValues[bestClimbLevels[i] - 1],
-                    teamReports[i].getStandardDeviation("level" + numStrNames[bestClimbLevels[i] - 1] + "Climb"));
+                    teamReports[i].getStandardDeviation(TeamMetricIds.CLIMBS[bestClimbLevels[i] - 1]));
         }
 
         double endgameStdDev = Math.sqrt(endgameVariance);
@@ -611,8 +498,7 @@ public class AllianceReport {
      * @return Predicted number of bonus ranking points
      */
     private double calculatedPredictedBonusRp() {
-        double bonusRp =
-                calculateClimbRpChance() + calculateRocketRpChance(generateMonteCarloSet(MONTE_CARLO_ITERATIONS));
+        double bonusRp = calculateClimbRpChance() + calculateRocketRpChance();
 
         predictedValues.put("bonusRp", bonusRp);
         return bonusRp;
@@ -620,49 +506,14 @@ public class AllianceReport {
 
     /**
      * Calculates the expected number of ranking points acquired from completing the rocket in a qualification match
-     * for the alliance
+     * for the alliance, through a simulated and randomized data set
      *
-     * @param allianceSimulationValues Set of Monte Carlo simulation values for the alliance showing its output
-     *                                 during the course of a match
      * @return The expected number of rocket ranking points
      */
-    private double calculateRocketRpChance(ArrayList<ArrayList<HashMap<String, Double>>> allianceSimulationValues) {
-        // Counter for the number of simulations in which the RP is attained
-        int rocketRpAttainedCount = 0;
-
-        for (ArrayList<HashMap<String, Double>> teamReportSet : allianceSimulationValues) {
-            // Simulates placing game pieces on the rocket
-            calculateMonteCarloExpectedValues(teamReportSet);
-
-            calculatePredictedTeleOpHatchPanels(true);
-            calculatePredictedTeleOpCargo(true);
-
-            boolean rpAttained = true;
-
-            // Checks if there ISN'T at least two of each type of game pieces placed on the rocket
-            for (int j = 0; j < 3; j++) {
-                for (String gamePiece : new String[]{"Hatches", "Cargo"}) {
-                    double threshold = 2.0 - ((j == 0) ? predictedValues.get("autoRocket" + gamePiece) : 0);
-                    double mean = predictedValues.get("teleRocketLevel" + numStrNames[j] + gamePiece);
-
-                    if (mean < threshold) {
-                        rpAttained = false;
-                    }
-                }
-            }
-
-            if (rpAttained) {
-                rocketRpAttainedCount++;
-            }
-        }
-
-        // Replace simulation values with the actual ones
-        calculateExpectedValues();
-        calculatePredictedTeleOpPoints();
-
+    private double calculateRocketRpChance() {
         // Overall this method could be improved by making the threshold less strict, or using probability regardless
         // of rocket level of placing 6+ of each game piece
-        double rocketRpChance = ((double) rocketRpAttainedCount) / MONTE_CARLO_ITERATIONS;
+        double rocketRpChance = getSimulationResult().getRocketRpChance();
         predictedValues.put("rocketRp", rocketRpChance);
 
         return rocketRpChance;
@@ -694,10 +545,11 @@ public class AllianceReport {
                         // Determines the exact probability of this combination occurring, based on attempt-success
                         // rates
                         for (int i = 0; i < 3; i++) {
+                            int climbId = TeamMetricIds.CLIMBS[bestClimbLevels[i] - 1];
                             if (climbStatus[i] == 1) {
-                                probabilityIteration *= teamReports[i].getAttemptSuccessRate("level" + numStrNames[bestClimbLevels[i] - 1] + "Climb");
+                                probabilityIteration *= teamReports[i].getAttemptSuccessRate(climbId);
                             } else {
-                                probabilityIteration *= 1 - teamReports[i].getAttemptSuccessRate("level" + numStrNames[bestClimbLevels[i] - 1] + "Climb");
+                                probabilityIteration *= 1 - teamReports[i].getAttemptSuccessRate(climbId);
                             }
                         }
                         climbRpChance += probabilityIteration;
@@ -749,7 +601,7 @@ public class AllianceReport {
      * @return Predicted ranking points for the current alliance
      */
     public double calculatePredictedRp(AllianceReport opposingAlliance) {
-        return calculatedPredictedBonusRp() + 2 * calculateWinChance(opposingAlliance);
+        return predictedValues.get("bonusRp") + 2 * calculateWinChance(opposingAlliance);
     }
 
     /**
@@ -0,0 +1,531 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo simulation of the game pieces an alliance places during the tele-op period. Each iteration samples the
+ * tele-op game piece averages of the three teams from Normal distributions and places the alliance's game pieces on
+ * the rocket and cargo ship. Samples, placements, and running statistics are kept in preallocated
+ * <code>double</code> arrays with fixed slots, so iterations do not allocate any objects.
+ * <p>
+ * Iterations are split into fixed-size blocks, each drawing Normal values from its own stream of the simulation's
+ * sampler. Pseudorandom streams are split off a generator seeded with the simulation's seed. Blocks may run in
+ * parallel, and their statistics are merged in block order, so results depend only on the seed and number of
+ * iterations, not on the number of threads.
+ */
+public class AllianceSimulation {
+
+    /**
+     * Seed used when none is specified, so that the predictions of an alliance are the same every time
+     */
+    public static final long DEFAULT_SEED = 25;
+
+    /**
+     * Number of iterations simulated by each block. Must not depend on the number of threads.
+     */
+    static final int BLOCK_SIZE = 125;
+
+    /**
+     * Number of blocks simulated between convergence checks in adaptive simulations
+     */
+    static final int BATCH_BLOCKS = 4;
+
+    // Slots of the game pieces an alliance is expected to score, in the same order as the first eight metrics of
+    // TeamReport.teleMetricNames
+    static final int EXPECTED_CARGO_SHIP_HATCHES = 0;
+    static final int[] EXPECTED_ROCKET_HATCHES = {1, 2, 3};
+    static final int EXPECTED_CARGO_SHIP_CARGO = 4;
+    static final int[] EXPECTED_ROCKET_CARGO = {5, 6, 7};
+    static final int NUM_EXPECTED = 8;
+
+    // Slots of the game pieces placed during tele-op
+    static final int[] PLACED_ROCKET_HATCHES = {0, 1, 2};
+    static final int PLACED_CARGO_SHIP_HATCHES = 3;
+    static final int[] PLACED_ROCKET_CARGO = {4, 5, 6};
+    static final int PLACED_CARGO_SHIP_CARGO = 7;
+    static final int PLACED_HATCHES = 8;
+    static final int PLACED_CARGO = 9;
+    static final int TELE_POINTS = 10;
+    static final int NUM_PLACED = 11;
+
+    /**
+     * Means and standard deviations of each team's expected game pieces, indexed by team and then by slot
+     */
+    private final double[][] means, standardDeviations;
+
+    /**
+     * Game pieces placed during the sandstorm period, which limit the tele-op placements
+     */
+    private final double autoRocketHatches, autoRocketCargo, autoCargoShipHatches, autoCargoShipCargo;
+
+    private final long seed;
+    private final SimulationSampler sampler;
+
+    /**
+     * Pool that simulates blocks in parallel, <code>null</code> to simulate them sequentially on the calling thread
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Prepares a simulation of an alliance that runs sequentially with the default seed and pseudorandom sampler
+     *
+     * @param teamReports          Team reports of the three alliance members
+     * @param autoRocketHatches    Predicted hatch panels placed on the rocket during the sandstorm period
+     * @param autoRocketCargo      Predicted cargo placed on the rocket during the sandstorm period
+     * @param autoCargoShipHatches Predicted hatch panels placed on the cargo ship during the sandstorm period
+     * @param autoCargoShipCargo   Predicted cargo placed on the cargo ship during the sandstorm period
+     */
+    public AllianceSimulation(TeamReport[] teamReports, double autoRocketHatches, double autoRocketCargo,
+                              double autoCargoShipHatches, double autoCargoShipCargo) {
+        this(teamReports, autoRocketHatches, autoRocketCargo, autoCargoShipHatches, autoCargoShipCargo, DEFAULT_SEED,
+                new PseudoRandomSampler(), null);
+    }
+
+    /**
+     * Prepares a simulation of an alliance
+     *
+     * @param teamReports          Team reports of the three alliance members
+     * @param autoRocketHatches    Predicted hatch panels placed on the rocket during the sandstorm period
+     * @param autoRocketCargo      Predicted cargo placed on the rocket during the sandstorm period
+     * @param autoCargoShipHatches Predicted hatch panels placed on the cargo ship during the sandstorm period
+     * @param autoCargoShipCargo   Predicted cargo placed on the cargo ship during the sandstorm period
+     * @param seed                 Seed of the random streams. Simulations with the same seed give the same results.
+     * @param sampler              Source of the Normal values drawn in each iteration
+     * @param pool                 Pool that simulates blocks of iterations in parallel, <code>null</code> to simulate
+     *                             them sequentially
+     */
+    public AllianceSimulation(TeamReport[] teamReports, double autoRocketHatches, double autoRocketCargo,
+                              double autoCargoShipHatches, double autoCargoShipCargo, long seed,
+                              SimulationSampler sampler, ForkJoinPool pool) {
+        this.seed = seed;
+        this.sampler = sampler;
+        this.pool = pool;
+        this.autoRocketHatches = autoRocketHatches;
+        this.autoRocketCargo = autoRocketCargo;
+        this.autoCargoShipHatches = autoCargoShipHatches;
+        this.autoCargoShipCargo = autoCargoShipCargo;
+
+        means = new double[teamReports.length][NUM_EXPECTED];
+        standardDeviations = new double[teamReports.length][NUM_EXPECTED];
+        for (int t = 0; t < teamReports.length; t++) {
+            for (int slot = 0; slot < NUM_EXPECTED; slot++) {
+                means[t][slot] = teamReports[t].getAverage(TeamMetricIds.TELE_AVERAGES[slot]);
+                standardDeviations[t][slot] = teamReports[t].getStandardDeviation(TeamMetricIds.TELE_AVERAGES[slot]);
+            }
+        }
+    }
+
+    /**
+     * Places the game pieces an alliance is expected to score during tele-op, filling the uppermost rocket levels
+     * first. Excess hatch panels and cargo carry over to lower levels and then to the cargo ship.
+     *
+     * @param expected             Game pieces the alliance is expected to score, indexed by the expected slots
+     * @param autoRocketHatches    Hatch panels placed on the rocket during the sandstorm period
+     * @param autoCargoShipHatches Hatch panels placed on the cargo ship during the sandstorm period
+     * @param autoCargoShipCargo   Cargo placed on the cargo ship during the sandstorm period
+     * @param rocketRp             Specifies if the alliance is attempting to gain the rocket ranking point, which
+     *                             caps each rocket level at two game pieces of each type instead of four
+     * @param placed               Array that receives the placed game pieces, indexed by the placed slots
+     */
+    static void placeGamePieces(double[] expected, double autoRocketHatches, double autoCargoShipHatches,
+                                double autoCargoShipCargo, boolean rocketRp, double[] placed) {
+        double levelCap = rocketRp ? 2.0 : 4.0;
+
+        double totalHatches = 0;
+
+        // Carry-over variable between rocket levels
+        double excessHatches = 0;
+
+        for (int i = 2; i >= 0; i--) {
+            double cap = levelCap;
+
+            if (i == 0) {
+                // Allow cargo ship hatch panels to be interchangeable with level 1 hatch panels
+                excessHatches += expected[EXPECTED_CARGO_SHIP_HATCHES];
+
+                // Decrease cap due to rocket hatches placed during the sandstorm period
+                cap = Math.max(0, cap - autoRocketHatches);
+            }
+
+            double hatchesPut = Math.min(excessHatches + expected[EXPECTED_ROCKET_HATCHES[i]], cap);
+
+            placed[PLACED_ROCKET_HATCHES[i]] = hatchesPut;
+            totalHatches += hatchesPut;
+            excessHatches += expected[EXPECTED_ROCKET_HATCHES[i]] - hatchesPut;
+        }
+
+        placed[PLACED_CARGO_SHIP_HATCHES] = Math.min(excessHatches, 8 - autoCargoShipHatches);
+        totalHatches += placed[PLACED_CARGO_SHIP_HATCHES];
+
+        double totalCargo = 0;
+        double excessCargo = 0;
+
+        for (int i = 2; i >= 0; i--) {
+            // Cap is affected by predicted tele-op hatch panels for that location
+            double cap = Math.min(levelCap, placed[PLACED_ROCKET_HATCHES[i]]);
+
+            if (i == 0) {
+                // Allow cargo ship cargo to be interchangeable with level 1 cargo
+                excessCargo += expected[EXPECTED_CARGO_SHIP_CARGO];
+                cap = Math.min(levelCap, placed[PLACED_ROCKET_HATCHES[i]] + autoRocketHatches);
+            }
+
+            double cargoPut = Math.min(excessCargo + expected[EXPECTED_ROCKET_CARGO[i]], cap);
+
+            placed[PLACED_ROCKET_CARGO[i]] = cargoPut;
+            totalCargo += cargoPut;
+            excessCargo += expected[EXPECTED_ROCKET_CARGO[i]] - cargoPut;
+        }
+
+        // We do not cap by hatch panels here due to the possibility of null hatch panels
+        // We also assume that hatch panels placed during sandstorm will be placed in a bay pre-populated with cargo
+        placed[PLACED_CARGO_SHIP_CARGO] = Math.min(excessCargo, 8 - autoCargoShipCargo - autoCargoShipHatches);
+        totalCargo += placed[PLACED_CARGO_SHIP_CARGO];
+
+        placed[PLACED_HATCHES] = totalHatches;
+        placed[PLACED_CARGO] = totalCargo;
+        placed[TELE_POINTS] = 2 * totalHatches + 3 * totalCargo;
+    }
+
+    /**
+     * Simulates matches of the alliance. Each match draws one sample of the teams' output, which is placed both as
+     * if the alliance scores as much as possible and as if it attempts to complete a rocket, so every statistic of
+     * the result comes from the same samples.
+     *
+     * @param numIterations Number of matches to simulate
+     * @return Standard deviations of the placed game pieces and chance of the rocket ranking point
+     */
+    public Result simulate(int numIterations) {
+        SplittableRandom generator = new SplittableRandom(seed);
+
+        ArrayList<Block> blocks = new ArrayList<>();
+        for (int start = 0; start < numIterations; start += BLOCK_SIZE) {
+            blocks.add(createBlock(generator, start, Math.min(BLOCK_SIZE, numIterations - start)));
+        }
+        runBlocks(blocks);
+
+        return createResult(blocks);
+    }
+
+    /**
+     * Simulates matches of the alliance in batches until the relative standard error of the tele-op points standard
+     * deviation and the standard error of the rocket ranking point chance are within their tolerances. Blocks are
+     * split off the seeded generator in the same order as in <code>simulate(int)</code>, so stopping after a number of
+     * iterations gives the same result as simulating that number of iterations.
+     *
+     * @param stdDevTolerance      Largest acceptable standard error of the tele-op points standard deviation, as a
+     *                             fraction of the standard deviation
+     * @param probabilityTolerance Largest acceptable standard error of the rocket ranking point chance
+     * @param minIterations        Number of matches simulated before checking the standard errors
+     * @param maxIterations        Number of matches after which simulation stops even if the tolerances are not met
+     * @return Standard deviations of the placed game pieces and chance of the rocket ranking point
+     */
+    public Result simulateAdaptively(double stdDevTolerance, double probabilityTolerance, int minIterations,
+                                     int maxIterations) {
+        SplittableRandom generator = new SplittableRandom(seed);
+
+        ArrayList<Block> blocks = new ArrayList<>();
+        int numIterations = 0;
+        while (numIterations < maxIterations) {
+            ArrayList<Block> batch = new ArrayList<>();
+            while (numIterations < maxIterations && (batch.size() < BATCH_BLOCKS || numIterations < minIterations)) {
+                int blockSize = Math.min(BLOCK_SIZE, maxIterations - numIterations);
+                batch.add(createBlock(generator, numIterations, blockSize));
+                numIterations += blockSize;
+            }
+            runBlocks(batch);
+            blocks.addAll(batch);
+
+            if (calculateStdDevRelativeStandardError(blocks) <= stdDevTolerance &&
+                    calculateProbabilityStandardError(blocks) <= probabilityTolerance) {
+                break;
+            }
+        }
+
+        return createResult(blocks);
+    }
+
+    /**
+     * Creates a block of iterations, splitting its random stream off the simulation's generator
+     *
+     * @param generator      Generator seeded with the simulation's seed
+     * @param firstIteration Index of the block's first iteration
+     * @param numIterations  Number of iterations in the block
+     * @return Block that has not been simulated
+     */
+    private Block createBlock(SplittableRandom generator, int firstIteration, int numIterations) {
+        return new Block(sampler.createBlockStream(seed, generator.split(), firstIteration,
+                means.length * NUM_EXPECTED), numIterations);
+    }
+
+    /**
+     * Estimates the standard error of the tele-op points standard deviation with the method of batch means, from the
+     * spread of the standard deviations of the full blocks. The error is relative to the standard deviation, so that
+     * alliances with more variable scoring do not need more iterations to meet the same tolerance.
+     *
+     * @param blocks Simulated blocks
+     * @return The standard error divided by the mean standard deviation of the blocks, 0 if every block has a standard
+     * deviation of 0, infinity if there are fewer than two full blocks
+     */
+    private double calculateStdDevRelativeStandardError(ArrayList<Block> blocks) {
+        int numFullBlocks = 0;
+        double mean = 0, sumSquareDevs = 0;
+        for (Block block : blocks) {
+            if (block.count == BLOCK_SIZE) {
+                numFullBlocks++;
+                double delta = block.getStandardDeviation(TELE_POINTS) - mean;
+                mean += delta / numFullBlocks;
+                sumSquareDevs += delta * (block.getStandardDeviation(TELE_POINTS) - mean);
+            }
+        }
+
+        if (numFullBlocks < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (mean == 0) {
+            // Tele-op points do not vary at all, e.g. when no team places game pieces
+            return 0;
+        }
+        return Math.sqrt(sumSquareDevs / (numFullBlocks - 1) / numFullBlocks) / mean;
+    }
+
+    /**
+     * Calculates the standard error of the rocket ranking point chance, from the Binomial distribution
+     *
+     * @param blocks Simulated blocks
+     * @return The standard error, infinity if no matches were simulated
+     */
+    private double calculateProbabilityStandardError(ArrayList<Block> blocks) {
+        int count = 0, rocketRpAttainedCount = 0;
+        for (Block block : blocks) {
+            count += block.count;
+            rocketRpAttainedCount += block.rocketRpAttainedCount;
+        }
+
+        if (count == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double probability = (double) rocketRpAttainedCount / count;
+        return Math.sqrt(probability * (1 - probability) / count);
+    }
+
+    /**
+     * Simulates blocks, in parallel if a pool is available. A pool that has been shut down, such as one replaced after
+     * the parallelism level changed, is not used.
+     *
+     * @param blocks Blocks to simulate
+     */
+    private void runBlocks(ArrayList<Block> blocks) {
+        if (pool == null || pool.isShutdown() || blocks.size() <= 1) {
+            for (Block block : blocks) {
+                block.run();
+            }
+            return;
+        }
+
+        ArrayList<Callable<Block>> tasks = new ArrayList<>();
+        for (Block block : blocks) {
+            tasks.add(block::run);
+        }
+
+        try {
+            for (Future<Block> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating alliance", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Merges the statistics of simulated blocks in block order, so the result does not depend on which threads
+     * simulated them
+     *
+     * @param blocks Simulated blocks, in the order their random streams were split
+     * @return Statistics of all simulated matches
+     */
+    private Result createResult(ArrayList<Block> blocks) {
+        Block merged = new Block(null, 0);
+        for (Block block : blocks) {
+            merged.merge(block);
+        }
+
+        double[] results = new double[NUM_PLACED];
+        for (int slot = 0; slot < NUM_PLACED; slot++) {
+            results[slot] = merged.getStandardDeviation(slot);
+        }
+        double rocketRpChance = merged.count == 0 ? 0 : (double) merged.rocketRpAttainedCount / merged.count;
+
+        return new Result(results, rocketRpChance, merged.count);
+    }
+
+    /**
+     * Checks if there are at least two of each type of game piece on each level of the rocket
+     *
+     * @param placed Game pieces placed during tele-op, indexed by the placed slots
+     * @return True if the rocket is completed, false otherwise
+     */
+    private boolean isRocketCompleted(double[] placed) {
+        for (int j = 0; j < 3; j++) {
+            double hatchThreshold = 2.0 - ((j == 0) ? autoRocketHatches : 0);
+            double cargoThreshold = 2.0 - ((j == 0) ? autoRocketCargo : 0);
+
+            if (placed[PLACED_ROCKET_HATCHES[j]] < hatchThreshold || placed[PLACED_ROCKET_CARGO[j]] < cargoThreshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Block of consecutive iterations with its own stream of Normal values, buffers, and running statistics
+     */
+    private class Block {
+
+        private final SimulationSampler.BlockStream stream;
+        private final int numIterations;
+
+        // Buffers reused by every iteration of the block
+        private final double[] normals = new double[means.length * NUM_EXPECTED];
+        private final double[] expected = new double[NUM_EXPECTED];
+        private final double[] placed = new double[NUM_PLACED];
+        private final double[] rocketPlaced = new double[NUM_PLACED];
+
+        // Welford's algorithm, so that samples do not need to be stored
+        private final double[] runningMeans = new double[NUM_PLACED];
+        private final double[] sumSquareDevs = new double[NUM_PLACED];
+        private int count;
+        private int rocketRpAttainedCount;
+
+        Block(SimulationSampler.BlockStream stream, int numIterations) {
+            this.stream = stream;
+            this.numIterations = numIterations;
+        }
+
+        /**
+         * Simulates the iterations of the block
+         *
+         * @return This block
+         */
+        Block run() {
+            for (int n = 0; n < numIterations; n++) {
+                sampleExpected();
+                placeGamePieces(expected, autoRocketHatches, autoCargoShipHatches, autoCargoShipCargo, false, placed);
+                placeGamePieces(expected, autoRocketHatches, autoCargoShipHatches, autoCargoShipCargo, true,
+                        rocketPlaced);
+
+                count++;
+                for (int slot = 0; slot < NUM_PLACED; slot++) {
+                    double delta = placed[slot] - runningMeans[slot];
+                    runningMeans[slot] += delta / count;
+                    sumSquareDevs[slot] += delta * (placed[slot] - runningMeans[slot]);
+                }
+
+                if (isRocketCompleted(rocketPlaced)) {
+                    rocketRpAttainedCount++;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Fills the expected game piece buffer with a random sample of the alliance's output in a match. Each team's
+         * values are drawn from the Normal distribution of the metric, and negative values are treated as zero.
+         */
+        private void sampleExpected() {
+            stream.nextStandardNormals(normals);
+
+            for (int slot = 0; slot < NUM_EXPECTED; slot++) {
+                double value = 0;
+                for (int t = 0; t < means.length; t++) {
+                    double normal = normals[slot * means.length + t];
+                    value += Math.max(normal * standardDeviations[t][slot] + means[t][slot], 0);
+                }
+                expected[slot] = value;
+            }
+        }
+
+        /**
+         * Calculates the sample standard deviation of a placed game piece slot over the block's iterations
+         *
+         * @param slot One of the placed slots
+         * @return The standard deviation, 0 if fewer than two iterations were simulated
+         */
+        double getStandardDeviation(int slot) {
+            return count > 1 ? Math.sqrt(sumSquareDevs[slot] / (count - 1)) : 0;
+        }
+
+        /**
+         * Merges the statistics of a later block into this block, with the pairwise update of Chan et al.
+         *
+         * @param other Block simulated after the iterations of this block
+         */
+        void merge(Block other) {
+            if (other.count == 0) {
+                return;
+            }
+
+            int total = count + other.count;
+            for (int slot = 0; slot < NUM_PLACED; slot++) {
+                double delta = other.runningMeans[slot] - runningMeans[slot];
+                runningMeans[slot] += delta * other.count / total;
+                sumSquareDevs[slot] += other.sumSquareDevs[slot] +
+                        delta * delta * ((double) count * other.count) / total;
+            }
+            count = total;
+            rocketRpAttainedCount += other.rocketRpAttainedCount;
+        }
+    }
+
+    /**
+     * Statistics of a simulation of an alliance
+     */
+    public static class Result {
+
+        private final double[] standardDeviations;
+        private final double rocketRpChance;
+        private final int numIterations;
+
+        Result(double[] standardDeviations, double rocketRpChance, int numIterations) {
+            this.standardDeviations = standardDeviations;
+            this.rocketRpChance = rocketRpChance;
+            this.numIterations = numIterations;
+        }
+
+        /**
+         * Retrieves the sample standard deviation of a placed game piece slot, in matches in which the alliance
+         * scores as much as possible
+         *
+         * @param slot One of the placed slots
+         * @return The standard deviation, 0 if fewer than two matches were simulated
+         */
+        public double getStandardDeviation(int slot) {
+            return standardDeviations[slot];
+        }
+
+        /**
+         * Retrieves the fraction of simulated matches in which the alliance attains the rocket ranking point when
+         * attempting to complete a rocket
+         *
+         * @return The chance of the rocket ranking point
+         */
+        public double getRocketRpChance() {
+            return rocketRpChance;
+        }
+
+        public int getNumIterations() {
+            return numIterations;
+        }
+    }
+}
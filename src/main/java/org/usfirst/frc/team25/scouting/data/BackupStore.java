@@ -0,0 +1,198 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Incremental backup store for data files. A file is only copied if its contents are not already in the store, so
+ * backing up before each processing run only copies the files that changed since the last backup.
+ * The store keeps an index of the content hash, source file, and backup location of everything it has copied.
+ */
+public class BackupStore {
+
+    private static final String INDEX_FILE_NAME = "Backup Index.txt";
+
+    private final File backupDirectory;
+    private final File indexFile;
+
+    /**
+     * Backup locations of each content hash in the store
+     */
+    private final HashMap<String, String> backupsByHash;
+
+    /**
+     * Source file states and their content hashes, so that unchanged files are not hashed again.
+     * Keys are the file name, size, and modification time.
+     */
+    private final HashMap<String, String> hashesBySourceState;
+
+    /**
+     * Opens the backup store in the specified directory, creating it if it does not exist
+     *
+     * @param backupDirectory Directory containing the backups and the backup index
+     */
+    public BackupStore(File backupDirectory) {
+        this.backupDirectory = backupDirectory;
+        indexFile = new File(backupDirectory, INDEX_FILE_NAME);
+        backupsByHash = new HashMap<>();
+        hashesBySourceState = new HashMap<>();
+
+        if (!backupDirectory.exists()) {
+            backupDirectory.mkdirs();
+        }
+
+        if (!indexFile.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Each line is the content hash, source state, and backup location, separated by tabs
+                String[] values = line.split("\t");
+                if (values.length == 3) {
+                    hashesBySourceState.put(values[1], values[0]);
+                    backupsByHash.put(values[0], values[2]);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Backs up the files whose contents are not already in the store, with timestamped names
+     *
+     * @param files    ArrayList of file objects to be backed up
+     * @param compress True to pack the new backups into a single compressed archive, false to copy them individually
+     * @return True if the operation is successful, false otherwise
+     */
+    public boolean backup(ArrayList<File> files, boolean compress) {
+        String dateString = new SimpleDateFormat("MM-dd HH-mm-ss").format(new Date());
+
+        ArrayList<File> newFiles = new ArrayList<>();
+        ArrayList<String> newHashes = new ArrayList<>();
+
+        try {
+            for (File file : files) {
+                String sourceState = getSourceState(file);
+                String hash = hashesBySourceState.get(sourceState);
+                if (hash == null) {
+                    hash = FileManager.getFileHash(file);
+                }
+
+                // Backups deleted by the user are copied again
+                if (!backupsByHash.containsKey(hash) || !backupExists(backupsByHash.get(hash))) {
+                    newFiles.add(file);
+                    newHashes.add(hash);
+                } else if (!hashesBySourceState.containsKey(sourceState)) {
+                    // Same contents as an existing backup, but the source was touched, so only the index is updated
+                    appendToIndex(hash, sourceState, backupsByHash.get(hash));
+                }
+            }
+
+            if (newFiles.isEmpty()) {
+                return true;
+            }
+
+            if (compress) {
+                File archive = getUniqueFile("Backup " + dateString, "zip");
+                try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                     ZipOutputStream zip = new ZipOutputStream(Channels.newOutputStream(channel))) {
+                    for (File file : newFiles) {
+                        zip.putNextEntry(new ZipEntry(file.getName()));
+                        Files.copy(file.toPath(), zip);
+                        zip.closeEntry();
+                    }
+                }
+
+                for (int i = 0; i < newFiles.size(); i++) {
+                    appendToIndex(newHashes.get(i), getSourceState(newFiles.get(i)),
+                            archive.getName() + "!/" + newFiles.get(i).getName());
+                }
+            } else {
+                for (int i = 0; i < newFiles.size(); i++) {
+                    File file = newFiles.get(i);
+                    String[] nameParts = file.getName().split(FileManager.FILE_EXTENSION_REGEX);
+                    File backupFile = getUniqueFile(nameParts[0] + " - Backup " + dateString,
+                            nameParts.length > 1 ? nameParts[1] : "");
+
+                    // Lets the file system copy the file directly, without reading it into memory
+                    Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+                    appendToIndex(newHashes.get(i), getSourceState(file), backupFile.getName());
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Generates a key describing the state of a source file, which changes when the file is modified
+     *
+     * @param file Source file
+     * @return Key containing the file's name, size, and modification time
+     */
+    private static String getSourceState(File file) {
+        return file.getName() + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    /**
+     * Determines if a backup in the index still exists in the backup directory
+     *
+     * @param location Backup location from the index, either a file name or an archive entry
+     * @return True if the backup file or archive exists, false otherwise
+     */
+    private boolean backupExists(String location) {
+        return new File(backupDirectory, location.split("!/")[0]).exists();
+    }
+
+    /**
+     * Gets a backup file that does not exist yet, adding a counter to the name if necessary
+     *
+     * @param baseName  Name of the backup file, without the extension
+     * @param extension Extension of the backup file, without the period
+     * @return File object in the backup directory that does not exist
+     */
+    private File getUniqueFile(String baseName, String extension) {
+        String suffix = extension.isEmpty() ? "" : "." + extension;
+        File file = new File(backupDirectory, baseName + suffix);
+        for (int i = 2; file.exists(); i++) {
+            file = new File(backupDirectory, baseName + " (" + i + ")" + suffix);
+        }
+        return file;
+    }
+
+    /**
+     * Records a backup in the index, both in memory and in the index file
+     *
+     * @param hash        Content hash of the backed up file
+     * @param sourceState Key describing the state of the source file
+     * @param location    Name of the backup file, or of the archive entry, in the backup directory
+     * @throws IOException if the index file cannot be written
+     */
+    private void appendToIndex(String hash, String sourceState, String location) throws IOException {
+        hashesBySourceState.put(sourceState, hash);
+        backupsByHash.put(hash, location);
+
+        Files.write(indexFile.toPath(), (hash + "\t" + sourceState + "\t" + location + "\n").getBytes(
+                StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
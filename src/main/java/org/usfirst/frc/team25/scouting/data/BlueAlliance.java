@@ -127,8 +127,9 @@ public class BlueAlliance {
 
 
     /**
-     * Exports a comma and line break delimited file of team numbers and names at an event.
-     * Each line contains a comma delimited pair of team number and team nickname.
+     * Exports a comma and line break delimited file of team numbers, names, and metadata at an event.
+     * Each line contains the team number, nickname, rookie year, city, state/province, and country of a team, and is
+     * parsed by <code>TeamDirectory</code>.
      *
      * @param eventCode       Fully qualified event key, i.e. "2016pahat" for Hatboro-Horsham in 2016
      * @param outputDirectory Location that the team list is saved in
@@ -143,7 +144,10 @@ public class BlueAlliance {
         try {
             for (Team team :
                     SortersFilters.sortByTeamNum(new ArrayList<>(Arrays.asList(TBA.eventRequest.getTeams(eventCode))))) {
-                teamList.append(team.getTeamNumber()).append(",").append(team.getNickname()).append(",\n");
+                teamList.append(team.getTeamNumber()).append(",").append(team.getNickname()).append(",")
+                        .append(team.getRookieYear()).append(",").append(toListField(team.getCity())).append(",")
+                        .append(toListField(team.getStateProv())).append(",").append(toListField(team.getCountry()))
+                        .append(",\n");
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -158,6 +162,16 @@ public class BlueAlliance {
         return false;
     }
 
+    /**
+     * Formats a team metadata field for the team list, which cannot contain commas after the nickname
+     *
+     * @param value Metadata field from The Blue Alliance, possibly null
+     * @return The value without commas, an empty string if the value is null
+     */
+    private static String toListField(String value) {
+        return value == null ? "" : value.replace(",", "");
+    }
+
     /**
      * Generates a file with list of teams playing in each match
      * Each line contains comma delimited match number, then team numbers for red alliance, then blue alliance.
@@ -0,0 +1,316 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Append-only log of corrections made to scout entries, such as those made by <code>InaccuracyFixer</code>.
+ * Each correction is stored as a single JSON line in a per-event log file, and the log is replayed onto entries
+ * as they are loaded, so corrections persist without rewriting the data files and leave an audit trail.
+ */
+public class CorrectionJournal {
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Setter methods of the data models, keyed by class and field name
+     */
+    private static final HashMap<String, Method> setterCache = new HashMap<>();
+
+    private final File journalFile;
+
+    /**
+     * Corrections read from the journal file, keyed by the identity key of the entry they apply to
+     */
+    private final HashMap<Long, ArrayList<Correction>> corrections;
+
+    /**
+     * Corrections recorded since the last flush that have not been written to the journal file
+     */
+    private final ArrayList<Correction> pendingCorrections;
+
+    /**
+     * Opens the correction journal of an event, reading any corrections that were previously recorded
+     *
+     * @param directory Data directory of the event
+     * @param event     Event key of the event
+     */
+    public CorrectionJournal(File directory, String event) {
+        journalFile = new File(directory, "Corrections - " + event + ".log");
+        corrections = new HashMap<>();
+        pendingCorrections = new ArrayList<>();
+
+        if (!journalFile.exists()) {
+            return;
+        }
+
+        try {
+            byte[] contents = Files.readAllBytes(journalFile.toPath());
+            int completeLength = findCompleteLength(contents);
+
+            // A line cut off by a crash mid-append is dropped, so the next flush starts on a line of its own
+            if (completeLength < contents.length) {
+                try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(completeLength);
+                }
+            }
+
+            for (String line : new String(contents, 0, completeLength, StandardCharsets.UTF_8).split("\n")) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    addToIndex(GSON.fromJson(line, Correction.class));
+                } catch (JsonParseException e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Finds the length of the journal contents up to and including the last line break
+     *
+     * @param contents Bytes of the journal file
+     * @return Number of bytes in the complete lines of the journal
+     */
+    private static int findCompleteLength(byte[] contents) {
+        int length = contents.length;
+        while (length > 0 && contents[length - 1] != '\n') {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Applies every journaled correction for a scout entry, in the order they were recorded
+     *
+     * @param entry Scout entry that was just loaded from a data file
+     * @return True if any correction changed the entry, false otherwise
+     */
+    public boolean replay(ScoutEntry entry) {
+        ArrayList<Correction> entryCorrections = corrections.get(EntryDeduplicator.computeIdentityKey(entry));
+
+        if (entryCorrections == null) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (Correction correction : entryCorrections) {
+            try {
+                if (!correction.newValue.equals(String.valueOf(getValue(entry, correction.field)))) {
+                    setValue(entry, correction.field, correction.newValue);
+                    changed = true;
+                }
+            } catch (ReflectiveOperationException e) {
+                e.printStackTrace();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Corrects a metric of a scout entry and records the correction, to be written on the next flush
+     *
+     * @param entry    Scout entry to correct
+     * @param field    Name of the metric, prefixed by the name of its data model field in
+     *                 <code>ScoutEntry</code> (e.g. <code>teleOp.successHabClimbLevel</code>)
+     * @param newValue Corrected value of the metric
+     * @param source   Description of where the correction came from (e.g. <code>TBA</code>)
+     */
+    public void recordCorrection(ScoutEntry entry, String field, Object newValue, String source) {
+        try {
+            String oldValue = String.valueOf(getValue(entry, field));
+
+            if (oldValue.equals(String.valueOf(newValue))) {
+                return;
+            }
+
+            setValue(entry, field, String.valueOf(newValue));
+
+            Correction correction = new Correction(entry, field, oldValue, String.valueOf(newValue), source);
+            pendingCorrections.add(correction);
+            addToIndex(correction);
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends the corrections recorded since the last flush to the journal file
+     *
+     * @return True if the corrections were written, false otherwise
+     */
+    public boolean flush() {
+        if (pendingCorrections.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (Correction correction : pendingCorrections) {
+            lines.append(GSON.toJson(correction)).append("\n");
+        }
+
+        try {
+            Files.write(journalFile.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        pendingCorrections.clear();
+        return true;
+    }
+
+    /**
+     * Adds a correction to the lookup of corrections by entry
+     *
+     * @param correction Correction to add
+     */
+    private void addToIndex(Correction correction) {
+        corrections.computeIfAbsent(correction.getIdentityKey(), key -> new ArrayList<>()).add(correction);
+    }
+
+    /**
+     * Retrieves the current value of a metric of a scout entry
+     *
+     * @param entry Scout entry to read
+     * @param field Name of the metric, prefixed by the name of its data model field
+     * @return The value of the metric
+     * @throws ReflectiveOperationException if the metric does not exist
+     */
+    private static Object getValue(ScoutEntry entry, String field) throws ReflectiveOperationException {
+        Object dataModel = getDataModel(entry, field);
+        MetricRegistry.MetricAccessor accessor =
+                MetricRegistry.forClass(dataModel.getClass()).get(getMetricName(field));
+
+        if (accessor == null) {
+            throw new NoSuchMethodException(field);
+        }
+        return accessor.getValue(dataModel);
+    }
+
+    /**
+     * Sets the value of a metric of a scout entry through its setter
+     *
+     * @param entry Scout entry to modify
+     * @param field Name of the metric, prefixed by the name of its data model field
+     * @param value String representation of the new value, converted to the setter's parameter type
+     * @throws ReflectiveOperationException if the metric does not exist or has no setter
+     */
+    private static void setValue(ScoutEntry entry, String field, String value) throws ReflectiveOperationException {
+        Object dataModel = getDataModel(entry, field);
+        Method setter = getSetter(dataModel.getClass(), getMetricName(field));
+        Class<?> type = setter.getParameterTypes()[0];
+
+        if (type == int.class) {
+            setter.invoke(dataModel, Integer.parseInt(value));
+        } else if (type == boolean.class) {
+            setter.invoke(dataModel, Boolean.parseBoolean(value));
+        } else {
+            setter.invoke(dataModel, value);
+        }
+    }
+
+    /**
+     * Retrieves the data model of a scout entry that contains a metric
+     *
+     * @param entry Scout entry containing the data model
+     * @param field Name of the metric, prefixed by the name of its data model field
+     * @return The data model object
+     * @throws NoSuchFieldException if the prefix is not a data model field
+     */
+    private static Object getDataModel(ScoutEntry entry, String field) throws NoSuchFieldException {
+        switch (field.substring(0, field.indexOf('.'))) {
+            case "preMatch":
+                return entry.getPreMatch();
+            case "sandstorm":
+                return entry.getAutonomous();
+            case "teleOp":
+                return entry.getTeleOp();
+            case "postMatch":
+                return entry.getPostMatch();
+            default:
+                throw new NoSuchFieldException(field);
+        }
+    }
+
+    private static String getMetricName(String field) {
+        return field.substring(field.indexOf('.') + 1);
+    }
+
+    /**
+     * Finds the setter of a metric in a data model class
+     *
+     * @param dataModelClass Class of the data model
+     * @param metricName     Name of the metric, in camel case
+     * @return The setter method
+     * @throws NoSuchMethodException if the data model has no such setter
+     */
+    private static Method getSetter(Class<?> dataModelClass, String metricName) throws NoSuchMethodException {
+        String key = dataModelClass.getName() + "#" + metricName;
+
+        if (!setterCache.containsKey(key)) {
+            for (Method m : dataModelClass.getMethods()) {
+                if (m.getName().equalsIgnoreCase("set" + metricName) && m.getParameterCount() == 1) {
+                    setterCache.put(key, m);
+                    break;
+                }
+            }
+        }
+
+        if (!setterCache.containsKey(key)) {
+            throw new NoSuchMethodException(key);
+        }
+        return setterCache.get(key);
+    }
+
+    /**
+     * A single correction to a metric of a scout entry
+     */
+    private static class Correction {
+
+        private final int matchNum;
+        private final int teamNum;
+        private final String scoutPos;
+        private final String field;
+        private final String oldValue;
+        private final String newValue;
+        private final String source;
+        private final long time;
+
+        Correction(ScoutEntry entry, String field, String oldValue, String newValue, String source) {
+            this.matchNum = entry.getPreMatch().getMatchNum();
+            this.teamNum = entry.getPreMatch().getTeamNum();
+            this.scoutPos = entry.getPreMatch().getScoutPos();
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+            this.source = source;
+            this.time = System.currentTimeMillis();
+        }
+
+        /**
+         * Computes the identity key of the entry this correction applies to
+         *
+         * @return Identity key, as computed by <code>EntryDeduplicator.computeIdentityKey</code>
+         */
+        long getIdentityKey() {
+            return EntryDeduplicator.computeIdentityKey(matchNum, teamNum, scoutPos);
+        }
+    }
+}
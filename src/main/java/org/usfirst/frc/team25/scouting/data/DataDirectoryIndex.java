@@ -0,0 +1,271 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Index of the files in a data directory, classified by type. The directory is only listed again after its
+ * modification time changes, which happens whenever a file in it is created, renamed, or deleted, so repeated lookups
+ * (e.g. the match schedule for every predicted match) do not scan the directory each time. The index is also
+ * invalidated by the file system events received by <code>DataDirectoryWatcher</code> and by the files this
+ * application writes.
+ */
+public class DataDirectoryIndex {
+
+    /**
+     * Time, in milliseconds, after which a change to the directory is certain to change its modification time. File
+     * systems store modification times with a granularity of up to 2 seconds, so a listing taken sooner than that
+     * after the directory's last change may miss a file created within the same tick.
+     */
+    private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+    /**
+     * Indices of each data directory that has been looked up, keyed by absolute path
+     */
+    private static final HashMap<File, DataDirectoryIndex> indices = new HashMap<>();
+
+    private final File directory;
+
+    private final EnumMap<FileType, ArrayList<File>> filesByType;
+
+    /**
+     * Modification time of the directory when it was last listed
+     */
+    private long listedModificationTime;
+
+    /**
+     * Lines of the match schedule, read on first use, and the modification time and size of the file they were read
+     * from
+     */
+    private String[] matchSchedule;
+    private long matchScheduleModificationTime, matchScheduleLength;
+
+    private boolean valid;
+
+    /**
+     * Creates an empty index of a data directory, which is listed on the first lookup
+     *
+     * @param directory Directory containing all data files for an event
+     */
+    private DataDirectoryIndex(File directory) {
+        this.directory = directory;
+        filesByType = new EnumMap<>(FileType.class);
+    }
+
+    /**
+     * Gets the index of a data directory, creating it if the directory has not been indexed yet
+     *
+     * @param directory Directory containing all data files for an event
+     * @return Index of the directory
+     */
+    public static synchronized DataDirectoryIndex forDirectory(File directory) {
+        return indices.computeIfAbsent(directory.getAbsoluteFile(), DataDirectoryIndex::new);
+    }
+
+    /**
+     * Discards the index of a directory, if it has been indexed. Used when another data directory is selected, so
+     * that indices of directories no longer in use are not kept.
+     *
+     * @param directory Directory whose index is discarded
+     */
+    public static synchronized void remove(File directory) {
+        if (directory != null) {
+            indices.remove(directory.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Marks the index of a directory as out of date, if it has been indexed. Used after this application writes or
+     * deletes a file, or a file system event is received, as the directory's modification time may not have changed
+     * yet.
+     *
+     * @param directory Directory in which a file was written or deleted
+     */
+    public static synchronized void invalidate(File directory) {
+        if (directory == null) {
+            return;
+        }
+
+        DataDirectoryIndex index = indices.get(directory.getAbsoluteFile());
+        if (index != null) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * Marks the index as out of date, so that the directory is listed again on the next lookup
+     */
+    public synchronized void invalidate() {
+        valid = false;
+        matchSchedule = null;
+    }
+
+    /**
+     * Lists and classifies the directory's files if the index is out of date or the directory's modification time
+     * changed since it was last listed
+     */
+    private void refresh() {
+        long modificationTime = directory.lastModified();
+        if (valid && modificationTime == listedModificationTime) {
+            return;
+        }
+
+        filesByType.clear();
+        for (FileType type : FileType.values()) {
+            filesByType.put(type, new ArrayList<>());
+        }
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                filesByType.get(classify(file)).add(file);
+            }
+        }
+
+        listedModificationTime = modificationTime;
+
+        // A recent listing is not trusted, as a file created in the same tick would not change the modification time
+        valid = System.currentTimeMillis() - modificationTime > MODIFICATION_TIME_GRANULARITY;
+    }
+
+    /**
+     * Determines the type of a file in a data directory from its name
+     *
+     * @param file File in the data directory
+     * @return Type of the file
+     */
+    private static FileType classify(File file) {
+        String fileName = file.getName();
+
+        if (file.isDirectory()) {
+            return fileName.equals("backup") ? FileType.BACKUP : FileType.OTHER;
+        }
+
+        if (FileManager.isDataFile(file)) {
+            return FileType.DATA;
+        }
+
+        String[] nameParts = fileName.split(FileManager.FILE_EXTENSION_REGEX);
+        if (nameParts.length != 2) {
+            return FileType.OTHER;
+        }
+
+        if (nameParts[1].equals("csv") && fileName.contains("TeamNames")) {
+            return FileType.TEAM_NAMES;
+        } else if (nameParts[1].equals("csv") && fileName.contains("Matches")) {
+            return FileType.MATCH_SCHEDULE;
+        } else if (nameParts[1].equals("json") && fileName.startsWith("ScoreBreakdown")) {
+            return FileType.SCORE_BREAKDOWN;
+        }
+
+        return FileType.OTHER;
+    }
+
+    /**
+     * Gets all files of a type in the directory
+     *
+     * @param type Type of file to look up
+     * @return New ArrayList of the files, in the order they were listed
+     */
+    public synchronized ArrayList<File> getFiles(FileType type) {
+        refresh();
+        return new ArrayList<>(filesByType.get(type));
+    }
+
+    /**
+     * Gets the first file of a type in the directory
+     *
+     * @param type Type of file to look up
+     * @return File object of the first file of the type, <code>null</code> if there is none
+     */
+    public synchronized File getFile(FileType type) {
+        refresh();
+        ArrayList<File> files = filesByType.get(type);
+        return files.isEmpty() ? null : files.get(0);
+    }
+
+    public ArrayList<File> getDataFiles() {
+        return getFiles(FileType.DATA);
+    }
+
+    public File getTeamNameList() {
+        return getFile(FileType.TEAM_NAMES);
+    }
+
+    public File getMatchList() {
+        return getFile(FileType.MATCH_SCHEDULE);
+    }
+
+    /**
+     * Gets the score breakdown file of an event, as a directory may hold the breakdowns of several events
+     *
+     * @param event Event key whose breakdowns are looked up
+     * @return File object of <code>ScoreBreakdown - [event].json</code>, <code>null</code> if it is not downloaded
+     */
+    public synchronized File getScoreBreakdown(String event) {
+        String fileName = "ScoreBreakdown - " + event + ".json";
+        for (File file : getFiles(FileType.SCORE_BREAKDOWN)) {
+            if (file.getName().equals(fileName)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    public File getBackupDirectory() {
+        return getFile(FileType.BACKUP);
+    }
+
+    /**
+     * Gets the lines of the match schedule, reading the file again only after it is modified
+     *
+     * @return Array of match schedule lines, which should not be modified; <code>null</code> if the match schedule
+     * is not downloaded
+     */
+    public synchronized String[] getMatchSchedule() {
+        File matchList = getMatchList();
+        if (matchList == null) {
+            matchSchedule = null;
+            return null;
+        }
+
+        // The schedule is downloaded again during an event, which overwrites the file without changing the directory
+        if (matchSchedule == null || matchList.lastModified() != matchScheduleModificationTime
+                || matchList.length() != matchScheduleLength) {
+            matchScheduleModificationTime = matchList.lastModified();
+            matchScheduleLength = matchList.length();
+            matchSchedule = FileManager.getFileString(matchList).split("\n");
+        }
+
+        return matchSchedule;
+    }
+
+    /**
+     * Types of files found in a data directory
+     */
+    public enum FileType {
+        /**
+         * JSON scouting entry data files, plain or gzip-compressed
+         */
+        DATA,
+        /**
+         * Team name list downloaded from The Blue Alliance
+         */
+        TEAM_NAMES,
+        /**
+         * Qualification match schedule downloaded from The Blue Alliance
+         */
+        MATCH_SCHEDULE,
+        /**
+         * Match score breakdowns downloaded from The Blue Alliance
+         */
+        SCORE_BREAKDOWN,
+        /**
+         * Directory of backed up data files
+         */
+        BACKUP,
+        OTHER
+    }
+}
@@ -0,0 +1,358 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watches a data directory for JSON data files that are created, modified, or deleted, so that an
+ * <code>EventReport</code> can be refreshed by only parsing the files that actually changed. Events received also
+ * invalidate the directory's <code>DataDirectoryIndex</code>.
+ */
+public class DataDirectoryWatcher {
+
+    private final File directory;
+    private final WatchService watchService;
+    private final EntryDeduplicator.Policy deduplicationPolicy;
+
+    /**
+     * Entries parsed from each data file that has been ingested, in the order the files were ingested
+     */
+    private final LinkedHashMap<File, ArrayList<ScoutEntry>> entriesByFile;
+
+    /**
+     * Content hashes of the entries of each ingested data file, computed once when the file is parsed
+     */
+    private final HashMap<File, long[]> contentHashesByFile;
+
+    /**
+     * Deduplicated entries currently in the event report, compared by reference
+     */
+    private final Set<ScoutEntry> currentEntries;
+
+    /**
+     * Deduplicator from the most recent load or refresh
+     */
+    private EntryDeduplicator deduplicator;
+
+    /**
+     * Fingerprints of the data files as of the last time they were ingested
+     */
+    private final HashMap<File, Fingerprint> fingerprints;
+
+    /**
+     * Data files that changed but could not be parsed (e.g. a tablet export still being copied), retried on each poll
+     */
+    private final HashSet<File> pendingFiles;
+
+    /**
+     * Creates a watcher for the specified directory. Events are recorded from this point onward, so the watcher
+     * should be created before the directory's files are first loaded.
+     *
+     * @param directory           Directory containing all data files for an event
+     * @param deduplicationPolicy Policy used to resolve entries that appear in several data files
+     * @throws IOException if the directory cannot be watched
+     */
+    public DataDirectoryWatcher(File directory, EntryDeduplicator.Policy deduplicationPolicy) throws IOException {
+        this.directory = directory;
+        this.deduplicationPolicy = deduplicationPolicy;
+        entriesByFile = new LinkedHashMap<>();
+        contentHashesByFile = new HashMap<>();
+        currentEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        fingerprints = new HashMap<>();
+        pendingFiles = new HashSet<>();
+
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Parses every data file in the directory and records their fingerprints. Files are fingerprinted before they are
+     * parsed, so a file rewritten during the load has a stale fingerprint and is ingested again by
+     * <code>applyChanges</code>. Files that fail to parse (e.g. a tablet export still being copied) are not ingested
+     * or fingerprinted, and are retried on each poll like other pending files.
+     *
+     * @param parseTimes  Map to store the parse time of each file in, in milliseconds. May be <code>null</code>.
+     * @param failedFiles List to add files that could not be parsed to. May be <code>null</code>.
+     * @return ArrayList of all ScoutEntries in the data files that were parsed, with duplicates removed
+     */
+    public ArrayList<ScoutEntry> loadAll(Map<File, Long> parseTimes, List<File> failedFiles) {
+        entriesByFile.clear();
+        contentHashesByFile.clear();
+        fingerprints.clear();
+        pendingFiles.clear();
+
+        ArrayList<File> unparsedFiles = new ArrayList<>();
+        ArrayList<File> dataFiles = new ArrayList<>();
+        HashMap<File, Fingerprint> loadFingerprints = new HashMap<>();
+        for (File file : FileManager.getDataFiles(directory)) {
+            try {
+                loadFingerprints.put(file, new Fingerprint(file));
+                dataFiles.add(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+                unparsedFiles.add(file);
+            }
+        }
+
+        entriesByFile.putAll(FileManager.deserializeDataByFile(dataFiles, parseTimes, unparsedFiles));
+
+        // Partial entries of files that failed are dropped, as applyChanges does, until the file parses completely
+        for (File file : unparsedFiles) {
+            entriesByFile.remove(file);
+            pendingFiles.add(file);
+        }
+        if (failedFiles != null) {
+            failedFiles.addAll(unparsedFiles);
+        }
+
+        for (File file : entriesByFile.keySet()) {
+            contentHashesByFile.put(file, computeContentHashes(entriesByFile.get(file)));
+            fingerprints.put(file, loadFingerprints.get(file));
+        }
+
+        ArrayList<ScoutEntry> allEntries = deduplicate();
+        currentEntries.clear();
+        currentEntries.addAll(allEntries);
+
+        return allEntries;
+    }
+
+    /**
+     * Merges the entries of all ingested data files, removing duplicates with the deduplication policy
+     *
+     * @return ArrayList of deduplicated ScoutEntries, in the order that their files were ingested
+     */
+    private ArrayList<ScoutEntry> deduplicate() {
+        deduplicator = new EntryDeduplicator(deduplicationPolicy);
+
+        for (File file : entriesByFile.keySet()) {
+            ArrayList<ScoutEntry> fileEntries = entriesByFile.get(file);
+            long[] contentHashes = contentHashesByFile.get(file);
+            long sourceTime = fingerprints.containsKey(file) ? fingerprints.get(file).lastModified : 0;
+
+            for (int i = 0; i < fileEntries.size(); i++) {
+                deduplicator.addEntry(fileEntries.get(i), contentHashes[i], file.getName(), sourceTime);
+            }
+        }
+
+        return deduplicator.getEntries();
+    }
+
+    /**
+     * Computes the content hashes of entries freshly parsed from a data file
+     *
+     * @param entries ScoutEntries parsed from a data file
+     * @return Array of content hashes, in the same order as <code>entries</code>
+     */
+    private static long[] computeContentHashes(ArrayList<ScoutEntry> entries) {
+        long[] contentHashes = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            contentHashes[i] = EntryDeduplicator.computeContentHash(entries.get(i));
+        }
+        return contentHashes;
+    }
+
+    /**
+     * Ingests data files that were created, modified, or deleted since the last call, then updates the event report
+     * with the entries that were added or removed after deduplication. Files whose size, modification time, and
+     * contents are unchanged are not parsed again.
+     *
+     * @param eventReport Event report built from the entries returned by <code>loadAll</code>
+     * @return Number of data files that were ingested or removed
+     */
+    public int applyChanges(EventReport eventReport) {
+        LinkedHashSet<File> changedFiles = new LinkedHashSet<>(pendingFiles);
+        pendingFiles.clear();
+
+        try {
+            WatchKey key;
+            while ((key = watchService.poll()) != null) {
+                // The directory's index shares this watch rather than registering its own
+                DataDirectoryIndex.invalidate(directory);
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost, so every known and current data file needs to be checked
+                        changedFiles.addAll(entriesByFile.keySet());
+                        changedFiles.addAll(FileManager.getDataFiles(directory));
+                    } else {
+                        changedFiles.add(directory.toPath().resolve((Path) event.context()).toFile());
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            e.printStackTrace();
+        }
+
+        int filesChanged = 0;
+
+        for (File file : changedFiles) {
+            if (!FileManager.isDataFile(file)) {
+                continue;
+            }
+
+            if (!file.exists()) {
+                if (entriesByFile.containsKey(file)) {
+                    entriesByFile.remove(file);
+                    contentHashesByFile.remove(file);
+                    fingerprints.remove(file);
+                    filesChanged++;
+                }
+                continue;
+            }
+
+            try {
+                Fingerprint fingerprint = new Fingerprint(file, fingerprints.get(file));
+                if (fingerprint.equals(fingerprints.get(file))) {
+                    fingerprints.put(file, fingerprint);
+                    continue;
+                }
+
+                ArrayList<ScoutEntry> fileEntries = new ArrayList<>();
+                if (!FileManager.deserializeData(file, fileEntries::add)) {
+                    pendingFiles.add(file);
+                    continue;
+                }
+
+                entriesByFile.put(file, fileEntries);
+                contentHashesByFile.put(file, computeContentHashes(fileEntries));
+                fingerprints.put(file, fingerprint);
+                filesChanged++;
+            } catch (IOException e) {
+                pendingFiles.add(file);
+            }
+        }
+
+        if (filesChanged > 0) {
+            // Deduplication only hashes and compares entries, so it is redone across all files without re-parsing
+            ArrayList<ScoutEntry> newEntries = deduplicate();
+            Set<ScoutEntry> newEntrySet = Collections.newSetFromMap(new IdentityHashMap<>());
+            newEntrySet.addAll(newEntries);
+
+            ArrayList<ScoutEntry> removedEntries = new ArrayList<>();
+            for (ScoutEntry entry : currentEntries) {
+                if (!newEntrySet.contains(entry)) {
+                    removedEntries.add(entry);
+                }
+            }
+
+            ArrayList<ScoutEntry> addedEntries = new ArrayList<>();
+            for (ScoutEntry entry : newEntries) {
+                if (!currentEntries.contains(entry)) {
+                    addedEntries.add(entry);
+                }
+            }
+
+            currentEntries.clear();
+            currentEntries.addAll(newEntries);
+            eventReport.updateEntries(removedEntries, addedEntries);
+        }
+
+        return filesChanged;
+    }
+
+    /**
+     * Stops watching the data directory
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the report of duplicate entries from the most recent load or refresh
+     *
+     * @return Report of dropped entries and conflicts, empty if there were no duplicates
+     */
+    public String getDeduplicationReport() {
+        return deduplicator == null ? "" : deduplicator.getReport();
+    }
+
+    /**
+     * Identifies the version of a data file by its size, modification time, and content hash
+     */
+    private static class Fingerprint {
+
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        /**
+         * Creates the fingerprint of a file, hashing its contents
+         *
+         * @param file File object to fingerprint
+         * @throws IOException if the file cannot be read
+         */
+        Fingerprint(File file) throws IOException {
+            this(file, null);
+        }
+
+        /**
+         * Creates the fingerprint of a file, reusing the hash of a previous fingerprint if the file's size and
+         * modification time are unchanged
+         *
+         * @param file     File object to fingerprint
+         * @param previous Previous fingerprint of the file, may be <code>null</code>
+         * @throws IOException if the file cannot be read
+         */
+        Fingerprint(File file, Fingerprint previous) throws IOException {
+            size = file.length();
+            lastModified = file.lastModified();
+
+            if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+                hash = previous.hash;
+            } else {
+                hash = FileManager.getFileHash(file);
+            }
+        }
+
+        /**
+         * Determines if two fingerprints refer to the same file contents. The modification time is not compared, so
+         * that a file rewritten with identical contents is not parsed again.
+         *
+         * @param o Object to compare to
+         * @return True if the file contents are the same, false otherwise
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return size == other.size && hash.equals(other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode();
+        }
+    }
+}
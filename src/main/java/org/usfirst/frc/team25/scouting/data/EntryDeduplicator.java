@@ -0,0 +1,286 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import com.google.gson.Gson;
+import org.usfirst.frc.team25.scouting.data.models.PreMatch;
+import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+
+/**
+ * Removes scout entries that were ingested more than once, such as when a tablet is re-exported or when the combined
+ * data file sits next to the individual data files it was created from.
+ * Entries share an identity if they have the same match number, team number, and scout position. Entries with the
+ * same identity and contents are always dropped; entries with the same identity but different contents are
+ * conflicts, which are resolved according to the deduplication policy.
+ */
+public class EntryDeduplicator {
+
+    /**
+     * Scout positions in the order used to encode them in identity keys
+     */
+    private static final String[] SCOUT_POSITIONS = new String[]{"Red 1", "Red 2", "Red 3", "Blue 1", "Blue 2",
+            "Blue 3"};
+
+    private static final Gson GSON = new Gson();
+
+    private final Policy policy;
+
+    /**
+     * Entries that have been kept, in the order they were added
+     */
+    private final ArrayList<ScoutEntry> entries;
+
+    /**
+     * Modification times of the sources of each kept entry, in the same order as <code>entries</code>
+     */
+    private final ArrayList<Long> sourceTimes;
+    private final ArrayList<String> sourceNames;
+
+    /**
+     * Identity keys of entries, mapped to the index of the first kept entry with that identity
+     */
+    private final HashMap<Long, Integer> identityIndices;
+
+    /**
+     * Combined identity and content hashes of every entry that has been added
+     */
+    private final HashSet<Long> seenEntries;
+
+    private final ArrayList<String> report;
+    private int numDropped, numConflicts;
+
+    /**
+     * Constructs an empty deduplicator
+     *
+     * @param policy Policy used to resolve entries with the same identity but different contents
+     */
+    public EntryDeduplicator(Policy policy) {
+        this.policy = policy;
+        entries = new ArrayList<>();
+        sourceTimes = new ArrayList<>();
+        sourceNames = new ArrayList<>();
+        identityIndices = new HashMap<>();
+        seenEntries = new HashSet<>();
+        report = new ArrayList<>();
+    }
+
+    /**
+     * Deduplicates the entries of several data files
+     *
+     * @param entriesByFile Map of data files to the entries parsed from them, in the order they should be added
+     * @param policy        Policy used to resolve entries with the same identity but different contents
+     * @return Deduplicator containing the kept entries and the report of dropped entries
+     */
+    public static EntryDeduplicator deduplicate(LinkedHashMap<File, ArrayList<ScoutEntry>> entriesByFile,
+                                                Policy policy) {
+        EntryDeduplicator deduplicator = new EntryDeduplicator(policy);
+
+        for (File file : entriesByFile.keySet()) {
+            for (ScoutEntry entry : entriesByFile.get(file)) {
+                deduplicator.addEntry(entry, file.getName(), file.lastModified());
+            }
+        }
+
+        return deduplicator;
+    }
+
+    /**
+     * Computes the identity key of an entry. Standard scout positions are encoded exactly; other positions use a
+     * hash of their name.
+     *
+     * @param entry Scout entry to identify
+     * @return Key packing the match number, team number, and scout position of the entry
+     */
+    public static long computeIdentityKey(ScoutEntry entry) {
+        PreMatch preMatch = entry.getPreMatch();
+        return computeIdentityKey(preMatch.getMatchNum(), preMatch.getTeamNum(), preMatch.getScoutPos());
+    }
+
+    /**
+     * Computes the identity key of an entry from its identifying fields
+     *
+     * @param matchNum Match number of the entry
+     * @param teamNum  Team number of the entry
+     * @param scoutPos Scout position of the entry
+     * @return Key packing the match number, team number, and scout position
+     */
+    public static long computeIdentityKey(int matchNum, int teamNum, String scoutPos) {
+        int positionCode = -1;
+        for (int i = 0; i < SCOUT_POSITIONS.length; i++) {
+            if (SCOUT_POSITIONS[i].equals(scoutPos)) {
+                positionCode = i;
+                break;
+            }
+        }
+
+        if (positionCode == -1) {
+            positionCode = 0x80 | ((scoutPos == null ? 0 : scoutPos.hashCode()) & 0x7F);
+        }
+
+        return ((long) matchNum << 32) | ((teamNum & 0xFFFFFFL) << 8) | positionCode;
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the serialized contents of an entry
+     *
+     * @param entry Scout entry to hash
+     * @return Hash of the entry's contents
+     */
+    public static long computeContentHash(ScoutEntry entry) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : GSON.toJson(entry).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Adds an entry, computing its content hash
+     *
+     * @param entry      Scout entry to add
+     * @param sourceName Name of the file the entry was read from, used in the report
+     * @param sourceTime Modification time of the file the entry was read from
+     */
+    public void addEntry(ScoutEntry entry, String sourceName, long sourceTime) {
+        addEntry(entry, computeContentHash(entry), sourceName, sourceTime);
+    }
+
+    /**
+     * Adds an entry, dropping it or a previously kept entry if they are duplicates
+     *
+     * @param entry       Scout entry to add
+     * @param contentHash Hash of the entry's contents, as computed by <code>computeContentHash</code>
+     * @param sourceName  Name of the file the entry was read from, used in the report
+     * @param sourceTime  Modification time of the file the entry was read from
+     */
+    public void addEntry(ScoutEntry entry, long contentHash, String sourceName, long sourceTime) {
+        long identityKey = computeIdentityKey(entry);
+
+        // Mixes the identity into the content hash, so that identical entries for different teams do not collide
+        if (!seenEntries.add(identityKey * 31 + contentHash)) {
+            numDropped++;
+            report.add(describe(entry) + ": duplicate in " + sourceName + " dropped");
+            return;
+        }
+
+        Integer existingIndex = identityIndices.get(identityKey);
+
+        if (existingIndex == null) {
+            identityIndices.put(identityKey, entries.size());
+            keep(entry, sourceName, sourceTime);
+            return;
+        }
+
+        numConflicts++;
+        String existingSource = sourceNames.get(existingIndex);
+
+        switch (policy) {
+            case KEEP_NEWEST:
+                numDropped++;
+                if (sourceTime > sourceTimes.get(existingIndex)) {
+                    entries.set(existingIndex, entry);
+                    sourceTimes.set(existingIndex, sourceTime);
+                    sourceNames.set(existingIndex, sourceName);
+                    report.add(describe(entry) + ": conflict, kept newer " + sourceName + " and dropped " +
+                            existingSource);
+                } else {
+                    report.add(describe(entry) + ": conflict, kept newer " + existingSource + " and dropped " +
+                            sourceName);
+                }
+                break;
+            case KEEP_FIRST:
+                numDropped++;
+                report.add(describe(entry) + ": conflict, kept " + existingSource + " and dropped " + sourceName);
+                break;
+            case FLAG_CONFLICT:
+                keep(entry, sourceName, sourceTime);
+                report.add(describe(entry) + ": CONFLICT between " + existingSource + " and " + sourceName + ", both " +
+                        "kept");
+                break;
+        }
+    }
+
+    /**
+     * Appends an entry to the list of kept entries
+     *
+     * @param entry      Scout entry to keep
+     * @param sourceName Name of the file the entry was read from
+     * @param sourceTime Modification time of the file the entry was read from
+     */
+    private void keep(ScoutEntry entry, String sourceName, long sourceTime) {
+        entries.add(entry);
+        sourceNames.add(sourceName);
+        sourceTimes.add(sourceTime);
+    }
+
+    /**
+     * Generates a short description of an entry for the report
+     *
+     * @param entry Scout entry to describe
+     * @return String with the entry's match number, scout position, and team number
+     */
+    private static String describe(ScoutEntry entry) {
+        return "Q" + entry.getPreMatch().getMatchNum() + "-" + entry.getPreMatch().getScoutPos() + "-" +
+                entry.getPreMatch().getTeamNum();
+    }
+
+    /**
+     * Gets the entries that were kept, in the order they were added. An entry kept under the
+     * <code>KEEP_NEWEST</code> policy takes the position of the entry it replaced.
+     *
+     * @return ArrayList of the deduplicated ScoutEntries
+     */
+    public ArrayList<ScoutEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Generates a report of the entries that were dropped and the conflicts that were found
+     *
+     * @return Report with one line per dropped entry or conflict, empty if there were no duplicates
+     */
+    public String getReport() {
+        if (report.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder reportString = new StringBuilder(numDropped + " duplicate entries dropped, " + numConflicts +
+                " conflicts found (" + policy + "):");
+        for (String line : report) {
+            reportString.append("\n").append(line);
+        }
+        return reportString.toString();
+    }
+
+    public int getNumDropped() {
+        return numDropped;
+    }
+
+    public int getNumConflicts() {
+        return numConflicts;
+    }
+
+    /**
+     * Policies to resolve entries that have the same match, team, and scout position, but different contents
+     */
+    public enum Policy {
+        /**
+         * Keeps the entry from the most recently modified file
+         */
+        KEEP_NEWEST,
+        /**
+         * Keeps the entry that was added first
+         */
+        KEEP_FIRST,
+        /**
+         * Keeps every version of the entry and lists the conflict in the report, so it can be fixed manually
+         */
+        FLAG_CONFLICT
+    }
+}
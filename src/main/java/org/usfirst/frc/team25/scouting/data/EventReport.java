@@ -1,13 +1,23 @@
 package org.usfirst.frc.team25.scouting.data;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import org.usfirst.frc.team25.scouting.data.models.*;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Object model holding all data for an event. Responsible for generating event-wide files
@@ -21,7 +31,28 @@ public class EventReport {
     private final String event;
     private final File directory;
     private final HashMap<Integer, TeamReport> teamReports;
-    private File teamNameList;
+    private final CorrectionJournal correctionJournal;
+    private TeamDirectory teamDirectory;
+
+    /**
+     * Bits of the robot quick comments of the event's entries
+     */
+    private final QuickCommentDictionary quickCommentDictionary;
+
+    /**
+     * Maximum number of team reports processed at the same time. 1 processes them sequentially on the calling thread.
+     */
+    private int parallelism;
+
+    /**
+     * Pool that processes team reports and simulates alliances in parallel, created on first use
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Settings of the Monte Carlo simulations of alliance reports
+     */
+    private final SimulationSettings simulationSettings;
 
     /**
      * Constructs an <code>EventReport</code> based on scouting data
@@ -36,114 +67,268 @@ public class EventReport {
         this.scoutEntries = entries;
         this.event = event;
         this.directory = directory;
+
+        correctionJournal = new CorrectionJournal(directory, event);
+        teamDirectory = new TeamDirectory();
+        quickCommentDictionary = new QuickCommentDictionary();
+        parallelism = Runtime.getRuntime().availableProcessors();
+        simulationSettings = new SimulationSettings();
     }
 
     /**
-     * Calculates derived stats of each scout entry, populating team reports, and processing team reports.
-     * Should be called upon populating the event report with all scout entries.
+     * Applies journaled corrections and calculates derived stats of each scout entry, populating team reports, and
+     * processing team reports. Should be called upon populating the event report with all scout entries.
+     * Team reports are independent, so they are built and processed in parallel, up to the parallelism level. Each
+     * team report receives its entries in the same order regardless of parallelism, so results are deterministic.
      */
     public void processEntries() {
-
+        // Corrections are replayed sequentially, as the journal is not thread-safe
+        HashMap<Integer, ArrayList<ScoutEntry>> entriesByTeam = new HashMap<>();
         for (ScoutEntry entry : scoutEntries) {
-            entry.calculateDerivedStats();
+            correctionJournal.replay(entry);
+            calculateDerivedStats(entry);
 
-            int teamNum = entry.getPreMatch().getTeamNum();
+            entriesByTeam.computeIfAbsent(entry.getPreMatch().getTeamNum(), teamNum -> new ArrayList<>()).add(entry);
+        }
 
-            if (!teamReports.containsKey(teamNum)) {
-                teamReports.put(teamNum, new TeamReport(teamNum));
+        ArrayList<TeamReport> reports = new ArrayList<>();
+        if (parallelism <= 1 || entriesByTeam.size() <= 1) {
+            for (Integer teamNum : entriesByTeam.keySet()) {
+                reports.add(buildTeamReport(teamNum, entriesByTeam.get(teamNum)));
+            }
+        } else {
+            ArrayList<Callable<TeamReport>> tasks = new ArrayList<>();
+            for (Integer teamNum : entriesByTeam.keySet()) {
+                tasks.add(() -> buildTeamReport(teamNum, entriesByTeam.get(teamNum)));
             }
 
-            teamReports.get(teamNum).addEntry(entry);
+            try {
+                for (Future<TeamReport> future : getPool().invokeAll(tasks)) {
+                    reports.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while processing team reports", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
         }
 
-        for (Integer key : teamReports.keySet()) {
-            TeamReport report = teamReports.get(key);
-            if (teamNameList != null) {
-                report.autoGetTeamName(teamNameList);
-            }
-            report.processReport();
+        teamReports.clear();
+        for (TeamReport report : reports) {
+            teamReports.put(report.getTeamNum(), report);
         }
     }
 
     /**
-     * Generates a spreadsheet of all values from scout entries, with one row per entry.
-     * Columns are metric names, and cells contain individual values.
-     * Also creates a spreadsheet with "no show" entries removed.
+     * Gets the pool for parallel work, creating it if the parallelism level changed. A replaced pool is shut down, so
+     * its threads do not outlive it.
      *
-     * @param outputDirectory Output directory for generated fields
-     * @return True if the method was successfully executed, false otherwise
+     * @return Pool with the current parallelism level, <code>null</code> if work should run sequentially
      */
-    public boolean generateRawSpreadsheet(File outputDirectory) {
-
-        StringBuilder fileContents = new StringBuilder(generateSpreadsheetHeader() + "\n");
-        StringBuilder noShowFileContents = new StringBuilder(fileContents);
+    private ForkJoinPool getPool() {
+        if (pool != null && (parallelism <= 1 || pool.getParallelism() != parallelism)) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (parallelism > 1 && pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
 
-        // Create rows of entries inside this loop
-        for (ScoutEntry entry : scoutEntries) {
+    /**
+     * Creates and processes the team report of a team
+     *
+     * @param teamNum Team number of the team
+     * @param entries Scout entries of the team, with derived stats calculated
+     * @return The processed team report
+     */
+    private TeamReport buildTeamReport(int teamNum, ArrayList<ScoutEntry> entries) {
+        TeamReport report = new TeamReport(teamNum, quickCommentDictionary);
 
-            StringBuilder entryContents = new StringBuilder();
+        for (ScoutEntry entry : entries) {
+            report.addEntry(entry);
+        }
 
-            Object[] dataObjects = {entry.getPreMatch(), entry, entry.getAutonomous(), entry.getTeleOp(),
-                    entry.getPostMatch()};
+        report.autoGetTeamName(teamDirectory);
+        report.processReport();
 
-            // Populates each "block" of values based on the section of the match
-            for (Object dataObject : dataObjects) {
-                // Returns all members, including private members, but not inherited members
-                // This fetches the metric names from the fields of the four main data models
-                Field[] fields = dataObject.getClass().getDeclaredFields();
+        return report;
+    }
 
-                for (Field metric : fields) {
-                    Object metricValue = "";
+    /**
+     * Calculates the derived stats of a scout entry and encodes its quick comment selections with the event's
+     * dictionary
+     *
+     * @param entry Scout entry in the event report
+     */
+    private void calculateDerivedStats(ScoutEntry entry) {
+        entry.calculateDerivedStats();
+        quickCommentDictionary.encode(entry.getPostMatch());
+    }
 
-                    // Index to account for the substring shift from "is" or "get"
-                    // The correct getter method is later found with this value
-                    int shiftIndex = 3;
+    /**
+     * Removes and adds scout entries, updating only the team reports of teams whose entries changed.
+     * Used to refresh the event report without re-processing every team.
+     *
+     * @param removedEntries Entries currently in the event report that should be removed
+     * @param addedEntries   New entries to add to the event report
+     */
+    public void updateEntries(ArrayList<ScoutEntry> removedEntries, ArrayList<ScoutEntry> addedEntries) {
+        // Entries are compared by reference, as a re-exported file may contain equal but distinct entries
+        Set<ScoutEntry> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedSet.addAll(removedEntries);
+        scoutEntries.removeIf(removedSet::contains);
 
-                    if (metric.getType() == boolean.class) {
-                        shiftIndex = 2;
-                    }
+        for (ScoutEntry entry : removedEntries) {
+            int teamNum = entry.getPreMatch().getTeamNum();
+            TeamReport report = teamReports.get(teamNum);
 
-                    // Only the primitives are added to the output entry for now
-                    // Values from HashMaps for quick comments are added later
-                    if (metric.getType() != boolean.class && metric.getType() != int.class && metric.getType() != String.class) {
-                        continue;
-                    }
+            if (report != null) {
+                report.removeEntry(entry);
+                if (report.isEmpty()) {
+                    teamReports.remove(teamNum);
+                }
+            }
+        }
 
-                    try {
-                        // Retrieves the correct getter for the variable, then retrieves its value from the data object
-                        metricValue =
-                                SortersFilters.getCorrectGetter(dataObject.getClass(), metric.getName(), shiftIndex).invoke(dataObject);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+        for (ScoutEntry entry : addedEntries) {
+            correctionJournal.replay(entry);
+            calculateDerivedStats(entry);
+            scoutEntries.add(entry);
 
-                    entryContents.append(metricValue).append(",");
-                }
+            int teamNum = entry.getPreMatch().getTeamNum();
 
+            if (!teamReports.containsKey(teamNum)) {
+                TeamReport report = new TeamReport(teamNum, quickCommentDictionary);
+                report.autoGetTeamName(teamDirectory);
+                teamReports.put(teamNum, report);
             }
 
-            // Adds the true or false values for the robot quick comments
-            for (String key : scoutEntries.get(0).getPostMatch().getRobotQuickCommentSelections().keySet()) {
-                entryContents.append(entry.getPostMatch().getRobotQuickCommentSelections().get(key)).append(",");
-            }
+            teamReports.get(teamNum).addEntry(entry);
+        }
+    }
+
+    /**
+     * Updates the team report of a scout entry after the entry is corrected, without re-processing its other entries
+     *
+     * @param entry Scout entry in the event report that was modified
+     */
+    public void updateEntry(ScoutEntry entry) {
+        calculateDerivedStats(entry);
+
+        TeamReport report = teamReports.get(entry.getPreMatch().getTeamNum());
+        if (report != null) {
+            report.updateEntry(entry);
+        }
+    }
+
+    /**
+     * Generates a spreadsheet of all values from scout entries, with one row per entry.
+     * Columns are metric names, and cells contain individual values.
+     * Also creates a spreadsheet with "no show" entries removed.
+     * Rows are generated on the calling thread, as scout entries may be changed by corrections or refreshes while the
+     * files are written, and then streamed to the files on the output thread.
+     *
+     * @param outputDirectory Output directory for generated fields
+     * @return Future completed with true if both spreadsheets were written, false otherwise
+     */
+    public CompletableFuture<Boolean> generateRawSpreadsheet(File outputDirectory) {
+        String header = generateSpreadsheetHeader();
+
+        // Quick comment columns are looked up as bits of each entry's quick comment masks
+        String[] quickCommentKeys = scoutEntries.get(0).getPostMatch().getRobotQuickCommentSelections().keySet()
+                .toArray(new String[0]);
+        int[] quickCommentBits = new int[quickCommentKeys.length];
+        for (int i = 0; i < quickCommentKeys.length; i++) {
+            quickCommentBits[i] = quickCommentDictionary.getBit(quickCommentKeys[i]);
+        }
+
+        // The output thread only reads these rows, never the live entries
+        ArrayList<String> rows = new ArrayList<>(scoutEntries.size());
+        boolean[] noShow = new boolean[scoutEntries.size()];
+        for (int i = 0; i < scoutEntries.size(); i++) {
+            rows.add(generateSpreadsheetRow(scoutEntries.get(i), quickCommentKeys, quickCommentBits));
+            noShow[i] = scoutEntries.get(i).getPreMatch().isRobotNoShow();
+        }
 
-            entryContents.append('\n');
-            fileContents.append(entryContents);
+        CompletableFuture<Boolean> allData = OutputWriter.writeAsync(outputDirectory, "Data - All - " + event, "csv",
+                writer -> writeSpreadsheet(writer, header, rows, noShow, false));
+        CompletableFuture<Boolean> noShowData = OutputWriter.writeAsync(outputDirectory,
+                "Data - No Show Removed - " + event, "csv",
+                writer -> writeSpreadsheet(writer, header, rows, noShow, true));
 
-            if (!entry.getPreMatch().isRobotNoShow()) {
-                noShowFileContents.append(entryContents);
+        return allData.thenCombine(noShowData, (allWritten, noShowWritten) -> allWritten && noShowWritten);
+    }
+
+    /**
+     * Streams a spreadsheet of scout entries to a writer, one row at a time
+     *
+     * @param writer       Writer to the spreadsheet file
+     * @param header       Spreadsheet header, as generated by <code>generateSpreadsheetHeader</code>
+     * @param rows         Rows of the scout entries, as generated by <code>generateSpreadsheetRow</code>
+     * @param noShow       Specifies if each row's entry is a "no show"
+     * @param removeNoShow True if "no show" entries should be left out
+     * @throws IOException if the spreadsheet cannot be written
+     */
+    private static void writeSpreadsheet(Writer writer, String header, ArrayList<String> rows, boolean[] noShow,
+                                         boolean removeNoShow) throws IOException {
+        writer.write(header);
+        writer.write('\n');
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (removeNoShow && noShow[i]) {
+                continue;
             }
+            writer.write(rows.get(i));
         }
+    }
 
-        try {
-            FileManager.outputFile(outputDirectory, "Data - All - " + event, "csv", fileContents.toString());
-            FileManager.outputFile(outputDirectory, "Data - No Show Removed - " + event, "csv",
-                    noShowFileContents.toString());
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            return false;
+    /**
+     * Generates the spreadsheet row of a scout entry
+     *
+     * @param entry            Scout entry to convert
+     * @param quickCommentKeys Robot quick comments, in the same order as the header
+     * @param quickCommentBits Bits of the robot quick comments, <code>QuickCommentDictionary.NO_BIT</code> for
+     *                         comments that are read from the selections instead
+     * @return Comma-separated values of the entry, ending with a line break
+     */
+    private String generateSpreadsheetRow(ScoutEntry entry, String[] quickCommentKeys, int[] quickCommentBits) {
+        StringBuilder entryContents = new StringBuilder();
+
+        Object[] dataObjects = {entry.getPreMatch(), entry, entry.getAutonomous(), entry.getTeleOp(),
+                entry.getPostMatch()};
+
+        // Populates each "block" of values based on the section of the match
+        for (Object dataObject : dataObjects) {
+            // Metrics are the primitive and String fields of the data models, in declaration order
+            // Values from HashMaps for quick comments are added later
+            for (MetricRegistry.MetricAccessor metric : MetricRegistry.forClass(dataObject.getClass()).getMetrics()) {
+                entryContents.append(metric.getValue(dataObject)).append(",");
+            }
         }
-        return true;
+
+        // Adds the true or false values for the robot quick comments, or null if the entry does not have the comment
+        long presentMask = entry.getPostMatch().getQuickCommentPresentMask();
+        long selectedMask = entry.getPostMatch().getQuickCommentSelectedMask();
+        for (int i = 0; i < quickCommentBits.length; i++) {
+            int bit = quickCommentBits[i];
+            if (bit == QuickCommentDictionary.NO_BIT) {
+                entryContents.append(entry.getPostMatch().getRobotQuickCommentSelections().get(quickCommentKeys[i]))
+                        .append(",");
+            } else if ((presentMask & (1L << bit)) == 0) {
+                entryContents.append("null,");
+            } else {
+                entryContents.append((selectedMask & (1L << bit)) != 0).append(",");
+            }
+        }
+
+        entryContents.append('\n');
+        return entryContents.toString();
     }
 
     /**
@@ -160,12 +345,8 @@ public class EventReport {
         Class[] dataModels = {PreMatch.class, ScoutEntry.class, Autonomous.class, TeleOp.class, PostMatch.class};
 
         for (int i = 0; i < shortNames.length; i++) {
-            Field[] fields = dataModels[i].getDeclaredFields();
-
-            for (Field metric : fields) {
-                if (metric.getType() != int.class && metric.getType() != boolean.class && metric.getType() != String.class) {
-                    continue;
-                }
+            // Uses the same metrics as generateSpreadsheetRow, so that the columns line up
+            for (MetricRegistry.MetricAccessor metric : MetricRegistry.forClass(dataModels[i]).getMetrics()) {
 
                 // Only add in prefixes to sandstorm and tele-op
                 if (i == 2 || i == 3) {
@@ -186,20 +367,66 @@ public class EventReport {
     }
 
     /**
-     * Serializes the ArrayList of all scout entries into a JSON file
+     * Serializes the ArrayList of all scout entries into a JSON file, along with a binary snapshot of the entries
+     * that is loaded in place of the JSON file on start-up
+     *
+     * @param outputDirectory The directory to write the combined JSON file to
+     * @return Future completed with true once the JSON file is written, false if it could not be written
+     */
+    public CompletableFuture<Boolean> generateCombineJson(File outputDirectory) {
+        return generateCombineJson(outputDirectory, false);
+    }
+
+    /**
+     * Serializes the ArrayList of all scout entries into a JSON file, along with a binary snapshot of the entries
+     * that is loaded in place of the JSON file on start-up. Entries are serialized on the calling thread, as they may
+     * be changed by corrections or refreshes while the file is written, and then streamed to the file one at a time.
      *
      * @param outputDirectory The directory to write the combined JSON file to
-     * @return True if operation is successful, false otherwise
+     * @param compress        True to write a gzip-compressed file (<code>Data - All - event.json.gz</code>), which is
+     *                        read like a plain JSON file when loading data
+     * @return Future completed with true once the JSON file is written, false if it could not be written
      */
-    public boolean generateCombineJson(File outputDirectory) {
+    public CompletableFuture<Boolean> generateCombineJson(File outputDirectory, boolean compress) {
         Gson gson = new Gson();
-        String jsonString = gson.toJson(scoutEntries);
-        try {
-            FileManager.outputFile(outputDirectory, "Data - All - " + event, "json", jsonString);
-        } catch (FileNotFoundException e) {
-            return false;
+
+        // The output thread only reads these serialized copies, never the live entries
+        ArrayList<String> serializedEntries = new ArrayList<>(scoutEntries.size());
+        for (ScoutEntry entry : scoutEntries) {
+            serializedEntries.add(gson.toJson(entry, ScoutEntry.class));
         }
-        return true;
+
+        String fileName = "Data - All - " + event + ".json";
+        if (compress) {
+            fileName += "." + FileManager.COMPRESSED_EXTENSION;
+        }
+        File jsonFile = new File(outputDirectory, fileName);
+
+        CompletableFuture<Boolean> jsonWritten = OutputWriter.writeAsync(jsonFile, writer -> {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.beginArray();
+            for (String serializedEntry : serializedEntries) {
+                jsonWriter.jsonValue(serializedEntry);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        }, compress);
+
+        // Written after the JSON file, so that the snapshot records the finished file, from entries read back from the
+        // serialized copies. A failed snapshot is not fatal, as the JSON file is loaded instead
+        OutputWriter.runAfterWrites(() -> {
+            if (!jsonWritten.join()) {
+                return false;
+            }
+
+            ArrayList<ScoutEntry> entries = new ArrayList<>(serializedEntries.size());
+            for (String serializedEntry : serializedEntries) {
+                entries.add(gson.fromJson(serializedEntry, ScoutEntry.class));
+            }
+            return ScoutEntrySnapshot.writeSnapshot(entries, jsonFile);
+        });
+
+        return jsonWritten;
     }
 
     /**
@@ -208,11 +435,12 @@ public class EventReport {
      *
      * @param outputDirectory Directory where the picklists are saved to
      * @param knownPartners   Array of team numbers that are already in the playoff alliance
+     * @return Future completed with true once all picklists are written, false if any could not be written
      */
-    public void generatePicklists(File outputDirectory, int[] knownPartners) {
+    public CompletableFuture<Boolean> generatePicklists(File outputDirectory, int[] knownPartners) {
         PicklistGenerator pg = new PicklistGenerator(scoutEntries, teamReports, outputDirectory, event);
-        pg.generateComparePointList();
-        pg.generatePickPointList();
+        CompletableFuture<Boolean> comparePoints = pg.generateComparePointList();
+        CompletableFuture<Boolean> pickPoints = pg.generatePickPointList();
 
         ArrayList<TeamReport> knownPartnersArray = new ArrayList<>();
 
@@ -220,7 +448,8 @@ public class EventReport {
             knownPartnersArray.add(teamReports.get(team));
         }
 
-        pg.generateCalculatedPickAbilityList(knownPartnersArray);
+        return comparePoints.thenCombine(pickPoints, Boolean::logicalAnd)
+                .thenCombine(pg.generateCalculatedPickAbilityList(knownPartnersArray), Boolean::logicalAnd);
     }
 
     /**
@@ -229,9 +458,9 @@ public class EventReport {
      * Match schedule must be downloaded for this method to work.
      *
      * @param outputDirectory Directory to save the prediction text file
-     * @return True if the file was created successfully, false otherwise
+     * @return Future completed with true if the file was created successfully, false otherwise
      */
-    public boolean generateMatchPredictions(File outputDirectory) {
+    public CompletableFuture<Boolean> generateMatchPredictions(File outputDirectory) {
 
         // Finds the number of the next qualification match
         int greatestMatchNum = 0;
@@ -243,9 +472,7 @@ public class EventReport {
 
         try {
             StringBuilder predictions = new StringBuilder();
-            File matchList = FileManager.getMatchList(directory);
-
-            String[] matches = FileManager.getFileString(matchList).split("\n");
+            String[] matches = FileManager.getMatchSchedule(directory);
 
             for (int i = greatestMatchNum + 1; i < matches.length + 1; i++) {
                 AllianceReport[] allianceReports = getAlliancesInMatch(i);
@@ -275,14 +502,14 @@ public class EventReport {
             }
 
             if (predictions.length() > 0) {
-                FileManager.outputFile(outputDirectory, "MatchPredictions", "txt", predictions.toString());
-                return true;
+                return OutputWriter.writeAsync(outputDirectory, "MatchPredictions", "txt",
+                        writer -> writer.append(predictions));
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        return false;
+        return CompletableFuture.completedFuture(false);
     }
 
     /**
@@ -296,9 +523,7 @@ public class EventReport {
         AllianceReport[] allianceReports = new AllianceReport[2];
 
         try {
-            File matchList = FileManager.getMatchList(directory);
-
-            String[] matches = FileManager.getFileString(matchList).split("\n");
+            String[] matches = FileManager.getMatchSchedule(directory);
             for (String match : matches) {
                 String[] terms = match.split(",");
 
@@ -338,7 +563,7 @@ public class EventReport {
             }
         }
 
-        return new AllianceReport(teamReports);
+        return new AllianceReport(teamReports, simulationSettings, getPool());
     }
 
     public TeamReport getTeamReport(int teamNum) {
@@ -346,12 +571,21 @@ public class EventReport {
     }
 
     /**
-     * Sets the location of the CSV file containing team name and number pairings
+     * Sets the location of the CSV file containing team names and metadata, which is parsed once into the team
+     * directory shared by all team reports
      *
      * @param list File object representing the team name list file
      */
     public void setTeamNameList(File list) {
-        this.teamNameList = list;
+        this.teamDirectory = TeamDirectory.forFile(list);
+
+        for (TeamReport report : teamReports.values()) {
+            report.autoGetTeamName(teamDirectory);
+        }
+    }
+
+    public TeamDirectory getTeamDirectory() {
+        return teamDirectory;
     }
 
     /**
@@ -377,6 +611,38 @@ public class EventReport {
         return event;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of team reports processed at the same time by <code>processEntries</code>, and of
+     * threads simulating each alliance report
+     *
+     * @param parallelism Parallelism level, at least 1. 1 processes team reports and simulates alliances
+     *                    sequentially.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the settings of the Monte Carlo simulations of alliance reports, which may be changed to affect alliance
+     * reports created afterwards. Predictions depend only on the settings, not on the parallelism level.
+     *
+     * @return Mutable simulation settings of the event
+     */
+    public SimulationSettings getSimulationSettings() {
+        return simulationSettings;
+    }
+
+    public CorrectionJournal getCorrectionJournal() {
+        return correctionJournal;
+    }
+
     public File getDirectory() {
         return directory;
     }
@@ -1,19 +1,35 @@
 package org.usfirst.frc.team25.scouting.data;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.thebluealliance.api.v3.models.Match;
 import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Class of static methods used for file I/O
@@ -25,6 +41,16 @@ public class FileManager {
      */
     public static final String FILE_EXTENSION_REGEX = "\\.(?=[^.]+$)";
 
+    /**
+     * Extension appended to gzip-compressed data files (e.g. <code>Data - All - 2019njfla.json.gz</code>)
+     */
+    public static final String COMPRESSED_EXTENSION = "gz";
+
+    /**
+     * Shared Gson instance, as Gson is thread-safe and caches its reflective type adapters between calls
+     */
+    private static final Gson GSON = new Gson();
+
     /**
      * Writes a string to an output target file
      *
@@ -39,37 +65,197 @@ public class FileManager {
     }
 
     /**
-     * Writes a string to an output target file
+     * Writes a string to an output target file, replacing it only once the string is completely written
      *
      * @param file         File object containing the output filename and directory
      * @param fileContents String contents of output file
-     * @throws FileNotFoundException if the file object does not contain a valid location
+     * @throws FileNotFoundException if the file object does not contain a valid location or the file is locked
      */
     public static void outputFile(File file, String fileContents) throws FileNotFoundException {
-        PrintWriter outputFile = new PrintWriter(file);
-        outputFile.write(fileContents);
-        outputFile.close();
+        if (!OutputWriter.write(file, writer -> writer.write(fileContents))) {
+            throw new FileNotFoundException("Could not write " + file.getAbsolutePath());
+        }
     }
 
     /**
      * Deserializes and combines contents of JSON files exported by the Android scouting app
      *
-     * @param fileNames List of JSON File objects to be parsed
+     * @param fileNames   List of JSON File objects to be parsed
+     * @param failedFiles List to add files that could not be read or are malformed to, such as a file that is still
+     *                    being copied. Entries parsed before the error are still returned. May be <code>null</code>
+     *                    if failures are not needed.
      * @return ArrayList of all ScoutEntries in the JSON files
      */
-    public static ArrayList<ScoutEntry> deserializeData(ArrayList<File> fileNames) {
+    public static ArrayList<ScoutEntry> deserializeData(ArrayList<File> fileNames, List<File> failedFiles) {
         ArrayList<ScoutEntry> allEntries = new ArrayList<>();
 
         for (File file : fileNames) {
-            ArrayList<ScoutEntry> fileEntries = new Gson().fromJson(getFileString(file),
-                    new TypeToken<ArrayList<ScoutEntry>>() {
-                    }.getType());
+            if (!deserializeData(file, allEntries::add) && failedFiles != null) {
+                failedFiles.add(file);
+            }
+        }
+
+        return allEntries;
+    }
+
+    /**
+     * Deserializes and combines contents of JSON files exported by the Android scouting app, parsing independent
+     * files concurrently on a pool bounded by the number of available processors. Entries are merged in the order of
+     * <code>fileNames</code>, so the result is the same as that of <code>deserializeData</code>.
+     *
+     * @param fileNames  List of JSON File objects to be parsed
+     * @param parseTimes  Map to store the parse time of each file in, in milliseconds and in the order of
+     *                    <code>fileNames</code>. May be <code>null</code> if timings are not needed.
+     * @param failedFiles List to add files that could not be read or are malformed to. May be <code>null</code> if
+     *                    failures are not needed.
+     * @return ArrayList of all ScoutEntries in the JSON files
+     */
+    public static ArrayList<ScoutEntry> deserializeDataParallel(ArrayList<File> fileNames, Map<File, Long> parseTimes,
+                                                                List<File> failedFiles) {
+        ArrayList<ScoutEntry> allEntries = new ArrayList<>();
+
+        for (ArrayList<ScoutEntry> fileEntries : deserializeDataByFile(fileNames, parseTimes, failedFiles).values()) {
             allEntries.addAll(fileEntries);
         }
 
         return allEntries;
     }
 
+    /**
+     * Deserializes JSON files exported by the Android scouting app concurrently, keeping the entries of each file
+     * separate. Files are parsed on a pool bounded by the number of available processors. A file that fails to parse
+     * does not affect the others.
+     *
+     * @param fileNames   List of JSON File objects to be parsed
+     * @param parseTimes  Map to store the parse time of each file in, in milliseconds and in the order of
+     *                    <code>fileNames</code>. May be <code>null</code> if timings are not needed.
+     * @param failedFiles List to add files that could not be read or are malformed to, in the order of
+     *                    <code>fileNames</code>. Entries parsed before the error are still mapped to the file. May be
+     *                    <code>null</code> if failures are not needed.
+     * @return Map of each file to the ScoutEntries parsed from it, in the order of <code>fileNames</code>
+     */
+    public static LinkedHashMap<File, ArrayList<ScoutEntry>> deserializeDataByFile(ArrayList<File> fileNames,
+                                                                                   Map<File, Long> parseTimes,
+                                                                                   List<File> failedFiles) {
+        LinkedHashMap<File, ArrayList<ScoutEntry>> entriesByFile = new LinkedHashMap<>();
+
+        if (fileNames.isEmpty()) {
+            return entriesByFile;
+        }
+
+        int numThreads = Math.min(fileNames.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+
+        // Each task writes only to its own index, and Future.get() makes the write visible to this thread
+        long[] fileParseTimes = new long[fileNames.size()];
+        boolean[] fileParsed = new boolean[fileNames.size()];
+        ArrayList<Future<ArrayList<ScoutEntry>>> fileEntries = new ArrayList<>();
+
+        for (int i = 0; i < fileNames.size(); i++) {
+            final int index = i;
+            fileEntries.add(pool.submit(() -> {
+                long startTime = System.nanoTime();
+                ArrayList<ScoutEntry> entries = new ArrayList<>();
+                fileParsed[index] = deserializeData(fileNames.get(index), entries::add);
+                fileParseTimes[index] = (System.nanoTime() - startTime) / 1000000;
+                return entries;
+            }));
+        }
+
+        try {
+            for (int i = 0; i < fileEntries.size(); i++) {
+                File file = fileNames.get(i);
+
+                try {
+                    entriesByFile.put(file, fileEntries.get(i).get());
+
+                    if (parseTimes != null) {
+                        parseTimes.put(file, fileParseTimes[i]);
+                    }
+                    if (!fileParsed[i] && failedFiles != null) {
+                        failedFiles.add(file);
+                    }
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    if (failedFiles != null) {
+                        failedFiles.add(file);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    // Files that were not collected are reported as failed, rather than silently dropped
+                    if (failedFiles != null) {
+                        failedFiles.addAll(fileNames.subList(i, fileNames.size()));
+                    }
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return entriesByFile;
+    }
+
+    /**
+     * Streams the contents of a JSON file exported by the Android scouting app, handing each entry to a consumer as
+     * soon as it is parsed. The file is read through a buffered channel, so memory use stays flat regardless of the
+     * size of the file. Gzip-compressed files are decompressed as they are read.
+     * If a binary snapshot of the file exists and was written from the file as it is now, entries are loaded from the
+     * snapshot instead.
+     *
+     * @param file     JSON File object to be parsed
+     * @param consumer Receives each ScoutEntry, in the order that it appears in the file
+     * @return True if the entire file was parsed, false if it could not be read or is malformed. Entries parsed
+     * before an error are still passed to <code>consumer</code>.
+     */
+    public static boolean deserializeData(File file, Consumer<ScoutEntry> consumer) {
+        if (ScoutEntrySnapshot.isSnapshotCurrent(file)) {
+            ArrayList<ScoutEntry> snapshotEntries =
+                    ScoutEntrySnapshot.readSnapshot(ScoutEntrySnapshot.getSnapshotFile(file));
+            if (snapshotEntries != null) {
+                snapshotEntries.forEach(consumer);
+                return true;
+            }
+        }
+
+        try (JsonReader reader = new JsonReader(openDataFileReader(file))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(GSON.fromJson(reader, ScoutEntry.class));
+            }
+            reader.endArray();
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Opens a buffered reader of a data file through a file channel, decompressing it if it is gzip-compressed
+     *
+     * @param file Data file to be read
+     * @return Reader of the file's decompressed contents
+     * @throws IOException if the file cannot be opened or is not a valid gzip file
+     */
+    private static BufferedReader openDataFileReader(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath());
+
+        if (!isCompressed(file)) {
+            return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.name()));
+        }
+
+        try {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(Channels.newInputStream(channel),
+                    64 * 1024), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
     /**
      * Gets the contents of a file as a string
      *
@@ -86,6 +272,39 @@ public class FileManager {
         return contents;
     }
 
+    /**
+     * Computes the SHA-256 hash of the contents of a file, reading it in fixed-size blocks
+     *
+     * @param file File object of the file to be hashed
+     * @return Hexadecimal string of the file's hash
+     * @throws IOException if the file cannot be read
+     */
+    public static String getFileHash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+
+        return hash.toString();
+    }
+
     /**
      * Deserializes a score breakdown JSON file downloaded from TBA into an array of TBA Match objects
      *
@@ -106,17 +325,7 @@ public class FileManager {
      * @return File object containing the team name list (if downloaded) for the event; null if not downloaded
      */
     public static File getTeamNameList(File directory) {
-        for (File file : FileManager.getFilesFromDirectory(directory)) {
-            String fileName = file.getName();
-            try {
-                if (fileName.split(FILE_EXTENSION_REGEX)[1].equals("csv") && fileName.contains("TeamNames")) {
-                    return file;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-        return null;
+        return DataDirectoryIndex.forDirectory(directory).getTeamNameList();
     }
 
     /**
@@ -136,17 +345,28 @@ public class FileManager {
      * @return File object containing the match schedule (if downloaded) for the event; null if not downloaded
      */
     public static File getMatchList(File directory) {
-        for (File file : FileManager.getFilesFromDirectory(directory)) {
-            String fileName = file.getName();
-            try {
-                if (fileName.split(FILE_EXTENSION_REGEX)[1].equals("csv") && fileName.contains("Matches")) {
-                    return file;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-        return null;
+        return DataDirectoryIndex.forDirectory(directory).getMatchList();
+    }
+
+    /**
+     * Gets the lines of the match schedule from a data directory, which are only read again if the file changes
+     *
+     * @param directory Directory containing all data files for an event
+     * @return Array of match schedule lines, which should not be modified; null if not downloaded
+     */
+    public static String[] getMatchSchedule(File directory) {
+        return DataDirectoryIndex.forDirectory(directory).getMatchSchedule();
+    }
+
+    /**
+     * Gets the score breakdown file from a data directory
+     *
+     * @param directory Directory containing all data files for an event
+     * @param event     Event key of the score breakdowns
+     * @return File object containing the score breakdowns (if downloaded) for the event; null if not downloaded
+     */
+    public static File getScoreBreakdown(File directory, String event) {
+        return DataDirectoryIndex.forDirectory(directory).getScoreBreakdown(event);
     }
 
     /**
@@ -157,12 +377,16 @@ public class FileManager {
      * @return True if the operation was successful, false otherwise
      */
     public static boolean deleteIndividualDataFiles(File directory) {
-        for (File file : getDataFiles(directory)) {
-            if (!file.getName().contains("All")) {
-                if (!file.delete()) {
-                    return false;
+        try {
+            for (File file : getDataFiles(directory)) {
+                if (!file.getName().contains("All")) {
+                    if (!file.delete()) {
+                        return false;
+                    }
                 }
             }
+        } finally {
+            DataDirectoryIndex.invalidate(directory);
         }
         return true;
     }
@@ -174,48 +398,57 @@ public class FileManager {
      * @return Array of file objects containing data JSON files from the directory
      */
     public static ArrayList<File> getDataFiles(File directory) {
-        ArrayList<File> jsonFileList = new ArrayList<>();
+        return DataDirectoryIndex.forDirectory(directory).getDataFiles();
+    }
 
-        for (File file : FileManager.getFilesFromDirectory(directory)) {
-            String fileName = file.getName();
-            try {
-                if (fileName.split(FILE_EXTENSION_REGEX)[1].equals("json") && fileName.contains("Data")) {
-                    jsonFileList.add(file);
-                }
-            } catch (ArrayIndexOutOfBoundsException e) {
-                e.printStackTrace();
-            }
+    /**
+     * Determines if a file is a JSON scouting entry data file, either plain or gzip-compressed
+     *
+     * @param file File object to check
+     * @return True if the file is a data file, false otherwise
+     */
+    public static boolean isDataFile(File file) {
+        String fileName = file.getName();
+        if (isCompressed(file)) {
+            fileName = fileName.substring(0, fileName.length() - COMPRESSED_EXTENSION.length() - 1);
         }
-        return jsonFileList;
+
+        String[] nameParts = fileName.split(FILE_EXTENSION_REGEX);
+        return nameParts.length == 2 && nameParts[1].equals("json") && fileName.contains("Data");
+    }
+
+    /**
+     * Determines if a file is gzip-compressed, based on its extension
+     *
+     * @param file File object to check
+     * @return True if the file has the compressed extension, false otherwise
+     */
+    public static boolean isCompressed(File file) {
+        return file.getName().endsWith("." + COMPRESSED_EXTENSION);
     }
 
     /**
-     * Creates a timestamped backup of all specified files in a backup folder
+     * Creates a timestamped backup of all specified files in a backup folder. Files whose contents are already
+     * backed up are skipped.
      *
      * @param files         ArrayList of file objects to be backed up
      * @param rootDirectory Data directory that the backup directory is created in
      * @return True if the operation is successful, false otherwise
      */
     public static boolean createBackup(ArrayList<File> files, File rootDirectory) {
+        return createBackup(files, rootDirectory, false);
+    }
 
-        File backupDirectory = new File(rootDirectory.getAbsolutePath() + "/backup");
-        if (!backupDirectory.exists()) {
-            backupDirectory.mkdirs();
-        }
-
-        for (File file : files) {
-            String dateString = new SimpleDateFormat("MM-dd HH-mm").format(new Date());
-            String originalFileName = file.getName().split(FILE_EXTENSION_REGEX)[0];
-            String newFileName =
-                    originalFileName + " - Backup " + dateString + "." + file.getName().split(FILE_EXTENSION_REGEX)[1];
-
-            File backupFile = new File(backupDirectory.getAbsolutePath() + "/" + newFileName);
-            try {
-                outputFile(backupFile, getFileString(file));
-            } catch (FileNotFoundException e) {
-                return false;
-            }
-        }
-        return true;
+    /**
+     * Creates a timestamped backup of all specified files in a backup folder. Files whose contents are already
+     * backed up are skipped.
+     *
+     * @param files         ArrayList of file objects to be backed up
+     * @param rootDirectory Data directory that the backup directory is created in
+     * @param compress      True to pack the backed up files into a single compressed archive
+     * @return True if the operation is successful, false otherwise
+     */
+    public static boolean createBackup(ArrayList<File> files, File rootDirectory, boolean compress) {
+        return new BackupStore(new File(rootDirectory, "backup")).backup(files, compress);
     }
 }
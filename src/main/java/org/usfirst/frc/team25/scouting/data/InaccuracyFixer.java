@@ -7,9 +7,9 @@ import javafx.scene.control.ButtonType;
 import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class that fixes the inaccurate scout entries found in an event report and outputs a list of inaccuracies
@@ -43,8 +43,9 @@ public class InaccuracyFixer {
         }
 
         try {
-            ArrayList<Match> matchData = FileManager.deserializeScoreBreakdown(
-                    new File(eventReport.getDirectory().getAbsoluteFile() + "/ScoreBreakdown - " + eventReport.getEvent() + ".json"));
+            ArrayList<Match> matchData =
+                    FileManager.deserializeScoreBreakdown(FileManager.getScoreBreakdown(eventReport.getDirectory(),
+                            eventReport.getEvent()));
 
             for (ScoutEntry entry : eventReport.getScoutEntries()) {
                 try {
@@ -60,18 +61,18 @@ public class InaccuracyFixer {
 
                         if (isActualNoShow(entry, sb) != entry.getPreMatch().isRobotNoShow()) {
                             inaccuracies += "ROBOT NO SHOW, ";
-                            entry.getPreMatch().setRobotNoShow(isActualNoShow(entry, sb));
+                            correct(entry, "preMatch.robotNoShow", isActualNoShow(entry, sb));
                         }
 
                         if (!entry.getPreMatch().isRobotNoShow()) {
                             if (findActualStartHabLevel(entry, sb) != entry.getPreMatch().getStartingLevel()) {
                                 inaccuracies += "starting HAB level, ";
-                                entry.getPreMatch().setStartingLevel(findActualStartHabLevel(entry, sb));
+                                correct(entry, "preMatch.startingLevel", findActualStartHabLevel(entry, sb));
                             }
 
                             if (isActualCrossHabLine(entry, sb) != entry.getAutonomous().isCrossHabLine()) {
                                 inaccuracies += "auto cross hab line, ";
-                                entry.getAutonomous().setCrossHabLine(isActualCrossHabLine(entry, sb));
+                                correct(entry, "sandstorm.crossHabLine", isActualCrossHabLine(entry, sb));
                             }
 
                             // This doesn't check for the case where the scout put 2 assists, but only 1 occurred
@@ -87,11 +88,11 @@ public class InaccuracyFixer {
                                     inaccuracies += "partner climb assist level, ";
                                     if (maxActualHabClimbLevel > 1) {
                                         // Assisted to level 2
-                                        entry.getTeleOp().setPartnerClimbAssistEndLevel(maxActualHabClimbLevel);
+                                        correct(entry, "teleOp.partnerClimbAssistEndLevel", maxActualHabClimbLevel);
                                     } else {
                                         // Can't assist to level 1
-                                        entry.getTeleOp().setPartnerClimbAssistEndLevel(0);
-                                        entry.getTeleOp().setNumPartnerClimbAssists(0);
+                                        correct(entry, "teleOp.partnerClimbAssistEndLevel", 0);
+                                        correct(entry, "teleOp.numPartnerClimbAssists", 0);
                                     }
                                 }
 
@@ -106,6 +107,9 @@ public class InaccuracyFixer {
 
                     if (!inaccuracies.isEmpty()) {
                         inaccuracyList += prefix + inaccuracies + "\n";
+
+                        // Recalculates the aggregate stats of only the corrected entry's team
+                        eventReport.updateEntry(entry);
                     }
 
                 } catch (IndexOutOfBoundsException e) {
@@ -113,8 +117,7 @@ public class InaccuracyFixer {
                 }
             }
             if (!inaccuracyList.isEmpty()) {
-                // Recalculates aggregate stats after correcting errors
-                eventReport.processEntries();
+                eventReport.getCorrectionJournal().flush();
                 return true;
             }
         } catch (Exception e) {
@@ -123,6 +126,17 @@ public class InaccuracyFixer {
         return false;
     }
 
+    /**
+     * Corrects a metric of a scout entry, recording the correction in the event's correction journal
+     *
+     * @param entry    ScoutEntry that needs to be corrected
+     * @param field    Name of the metric, prefixed by its data model (e.g. <code>teleOp.successHabClimbLevel</code>)
+     * @param newValue Correct value of the metric
+     */
+    private void correct(ScoutEntry entry, String field, Object newValue) {
+        eventReport.getCorrectionJournal().recordCorrection(entry, field, newValue, "TBA");
+    }
+
     /**
      * Corrects the HAB climb levels for the specified entry, creating a popup prompt if necessary for manual correction
      *
@@ -185,17 +199,17 @@ public class InaccuracyFixer {
                 if (entry.getTeleOp().getSuccessHabClimbLevel() != actualEndHabLevel) {
                     inaccuracyFound = true;
 
-                    entry.getTeleOp().setSuccessHabClimbLevel(actualEndHabLevel);
+                    correct(entry, "teleOp.successHabClimbLevel", actualEndHabLevel);
                     if (actualEndHabLevel > 0) {
-                        entry.getTeleOp().setSuccessHabClimb(true);
-                        entry.getTeleOp().setAttemptHabClimb(true);
+                        correct(entry, "teleOp.successHabClimb", true);
+                        correct(entry, "teleOp.attemptHabClimb", true);
                         if (entry.getTeleOp().getAttemptHabClimbLevel() < actualEndHabLevel) {
-                            entry.getTeleOp().setAttemptHabClimbLevel(actualEndHabLevel);
+                            correct(entry, "teleOp.attemptHabClimbLevel", actualEndHabLevel);
                         }
                     } else {
-                        entry.getTeleOp().setSuccessHabClimb(false);
-                        entry.getTeleOp().setAttemptHabClimb(false);
-                        entry.getTeleOp().setAttemptHabClimbLevel(0);
+                        correct(entry, "teleOp.successHabClimb", false);
+                        correct(entry, "teleOp.attemptHabClimb", false);
+                        correct(entry, "teleOp.attemptHabClimbLevel", 0);
                     }
                 }
             }
@@ -354,15 +368,15 @@ public class InaccuracyFixer {
      * Saves a detailed list of inaccuracies to a text file
      *
      * @param outputDirectory Directory in which the inaccuracy list is saved
+     * @return Future completed with true once the list is written, false if it could not be written or is empty
      */
-    public void saveInaccuracyList(File outputDirectory) {
-        try {
-            if (!inaccuracyList.isEmpty()) {
-                FileManager.outputFile(eventReport.getDirectory(), "Inaccuracies - " + eventReport.getEvent(), "txt",
-                        inaccuracyList);
-            }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+    public CompletableFuture<Boolean> saveInaccuracyList(File outputDirectory) {
+        if (inaccuracyList.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
         }
+
+        String list = inaccuracyList;
+        return OutputWriter.writeAsync(eventReport.getDirectory(), "Inaccuracies - " + eventReport.getEvent(), "txt",
+                writer -> writer.write(list));
     }
 }
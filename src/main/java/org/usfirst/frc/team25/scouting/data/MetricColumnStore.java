@@ -0,0 +1,439 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import org.usfirst.frc.team25.scouting.data.models.Autonomous;
+import org.usfirst.frc.team25.scouting.data.models.PostMatch;
+import org.usfirst.frc.team25.scouting.data.models.PreMatch;
+import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
+import org.usfirst.frc.team25.scouting.data.models.TeleOp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Column-oriented store of the numeric and boolean metrics of a set of scout entries (e.g. those of one team).
+ * Each integer metric is kept in its own contiguous <code>int</code> array, and each boolean metric in a
+ * <code>long</code> bitset, with one row per entry. Values are extracted once when an entry is added, so aggregations
+ * scan primitive arrays instead of walking entry objects.
+ * The mean, variance, minimum, and maximum of each integer metric and the number of true values of each boolean
+ * metric are also updated as rows are added and removed, so they are available without another pass over the data.
+ * Quantiles are exact, read from a sorted copy of the column. Quantile sketches are only built to export a metric, so
+ * that it can be merged with the same metric at other events.
+ */
+public class MetricColumnStore {
+
+    /**
+     * Data models whose metrics are stored, in the same order as the spreadsheet export
+     */
+    private static final Class<?>[] DATA_MODELS = {PreMatch.class, ScoutEntry.class, Autonomous.class, TeleOp.class,
+            PostMatch.class};
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Column layout, shared by every store
+    private static final ArrayList<MetricRegistry.MetricAccessor> intMetrics = new ArrayList<>();
+    private static final ArrayList<Integer> intMetricModels = new ArrayList<>();
+    private static final HashMap<String, Integer> intColumnIndices = new HashMap<>();
+    private static final ArrayList<MetricRegistry.MetricAccessor> booleanMetrics = new ArrayList<>();
+    private static final ArrayList<Integer> booleanMetricModels = new ArrayList<>();
+    private static final HashMap<String, Integer> booleanColumnIndices = new HashMap<>();
+
+    static {
+        for (int i = 0; i < DATA_MODELS.length; i++) {
+            for (MetricRegistry.MetricAccessor metric : MetricRegistry.forClass(DATA_MODELS[i]).getMetrics()) {
+                if (metric.getType() == int.class) {
+                    intColumnIndices.put(getColumnKey(DATA_MODELS[i], metric.getName()), intMetrics.size());
+                    intMetrics.add(metric);
+                    intMetricModels.add(i);
+                } else if (metric.getType() == boolean.class) {
+                    booleanColumnIndices.put(getColumnKey(DATA_MODELS[i], metric.getName()), booleanMetrics.size());
+                    booleanMetrics.add(metric);
+                    booleanMetricModels.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Integer columns, indexed by column and then by row
+     */
+    private int[][] intColumns;
+
+    /**
+     * Boolean bitset columns, indexed by column and then by 64-row word
+     */
+    private long[][] booleanColumns;
+
+    // Running aggregates of each integer column. Variances are accumulated with Welford's algorithm, while means are
+    // reported from exact sums so that averages of integer metrics are not affected by rounding.
+    private final long[] sums;
+    private final double[] means;
+    private final double[] sumSquareDevs;
+    private final int[] mins;
+    private final int[] maxes;
+
+    /**
+     * Number of true values in each boolean column
+     */
+    private final int[] trueCounts;
+
+    /**
+     * False if a removed row held a minimum or maximum, in which case they are found again on the next lookup
+     */
+    private boolean extremesValid;
+
+    /**
+     * Entry of each row, and row of each entry, compared by reference
+     */
+    private final ArrayList<ScoutEntry> rowEntries;
+    private final IdentityHashMap<ScoutEntry, Integer> rowIndices;
+
+    private int size;
+
+    /**
+     * Constructs an empty store
+     */
+    public MetricColumnStore() {
+        intColumns = new int[intMetrics.size()][INITIAL_CAPACITY];
+        booleanColumns = new long[booleanMetrics.size()][getWordCount(INITIAL_CAPACITY)];
+
+        sums = new long[intMetrics.size()];
+        means = new double[intMetrics.size()];
+        sumSquareDevs = new double[intMetrics.size()];
+        mins = new int[intMetrics.size()];
+        maxes = new int[intMetrics.size()];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxes, Integer.MIN_VALUE);
+
+        trueCounts = new int[booleanMetrics.size()];
+        extremesValid = true;
+
+        rowEntries = new ArrayList<>();
+        rowIndices = new IdentityHashMap<>();
+    }
+
+    /**
+     * Generates the key used to look up a column
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return Key combining the data model and the lower case metric name
+     */
+    private static String getColumnKey(Class<?> modelClass, String metricName) {
+        return modelClass.getSimpleName() + "." + metricName.toLowerCase();
+    }
+
+    private static int getWordCount(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Gets the data model object of a scout entry
+     *
+     * @param entry      Scout entry containing the data model
+     * @param modelIndex Index of the data model in <code>DATA_MODELS</code>
+     * @return The data model object
+     */
+    private static Object getDataModel(ScoutEntry entry, int modelIndex) {
+        switch (modelIndex) {
+            case 0:
+                return entry.getPreMatch();
+            case 1:
+                return entry;
+            case 2:
+                return entry.getAutonomous();
+            case 3:
+                return entry.getTeleOp();
+            default:
+                return entry.getPostMatch();
+        }
+    }
+
+    /**
+     * Appends the metrics of a scout entry as a new row and updates the running aggregates. Derived stats of the
+     * entry should already be calculated.
+     *
+     * @param entry Scout entry to add
+     */
+    public void add(ScoutEntry entry) {
+        if (size == intColumns[0].length) {
+            int capacity = size * 2;
+            for (int c = 0; c < intColumns.length; c++) {
+                intColumns[c] = Arrays.copyOf(intColumns[c], capacity);
+            }
+            for (int c = 0; c < booleanColumns.length; c++) {
+                booleanColumns[c] = Arrays.copyOf(booleanColumns[c], getWordCount(capacity));
+            }
+        }
+
+        Object[] dataModels = new Object[DATA_MODELS.length];
+        for (int i = 0; i < DATA_MODELS.length; i++) {
+            dataModels[i] = getDataModel(entry, i);
+        }
+
+        rowIndices.put(entry, size);
+        rowEntries.add(entry);
+        size++;
+
+        for (int c = 0; c < intColumns.length; c++) {
+            int value = intMetrics.get(c).getInt(dataModels[intMetricModels.get(c)]);
+            intColumns[c][size - 1] = value;
+
+            sums[c] += value;
+            double delta = value - means[c];
+            means[c] += delta / size;
+            sumSquareDevs[c] += delta * (value - means[c]);
+            mins[c] = Math.min(mins[c], value);
+            maxes[c] = Math.max(maxes[c], value);
+        }
+
+        for (int c = 0; c < booleanColumns.length; c++) {
+            if (booleanMetrics.get(c).getBoolean(dataModels[booleanMetricModels.get(c)])) {
+                booleanColumns[c][(size - 1) >>> 6] |= 1L << (size - 1);
+                trueCounts[c]++;
+            }
+        }
+    }
+
+    /**
+     * Removes the row of a scout entry and updates the running aggregates, using the values stored when the entry was
+     * added. The entry may have been modified since then. The last row is moved into the place of the removed row.
+     *
+     * @param entry Scout entry to remove
+     * @return True if the entry was in the store, false otherwise
+     */
+    public boolean remove(ScoutEntry entry) {
+        Integer removedRow = rowIndices.remove(entry);
+        if (removedRow == null) {
+            return false;
+        }
+
+        int row = removedRow;
+        int last = size - 1;
+
+        for (int c = 0; c < intColumns.length; c++) {
+            int value = intColumns[c][row];
+
+            sums[c] -= value;
+            if (last == 0) {
+                means[c] = 0;
+                sumSquareDevs[c] = 0;
+            } else {
+                // Reverses the Welford update of the value
+                double oldMean = means[c];
+                means[c] = (size * oldMean - value) / last;
+                sumSquareDevs[c] = Math.max(0, sumSquareDevs[c] - (value - oldMean) * (value - means[c]));
+            }
+
+            if (value == mins[c] || value == maxes[c]) {
+                extremesValid = false;
+            }
+
+            intColumns[c][row] = intColumns[c][last];
+        }
+
+        for (int c = 0; c < booleanColumns.length; c++) {
+            long[] column = booleanColumns[c];
+            if ((column[row >>> 6] & (1L << row)) != 0) {
+                trueCounts[c]--;
+            }
+
+            if ((column[last >>> 6] & (1L << last)) != 0) {
+                column[row >>> 6] |= 1L << row;
+            } else {
+                column[row >>> 6] &= ~(1L << row);
+            }
+            column[last >>> 6] &= ~(1L << last);
+        }
+
+        ScoutEntry movedEntry = rowEntries.remove(last);
+        if (row != last) {
+            rowEntries.set(row, movedEntry);
+            rowIndices.put(movedEntry, row);
+        }
+
+        size--;
+        return true;
+    }
+
+    /**
+     * Finds the minimum and maximum of each integer column again, after a row holding one of them was removed
+     */
+    private void refreshExtremes() {
+        if (extremesValid) {
+            return;
+        }
+
+        for (int c = 0; c < intColumns.length; c++) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, intColumns[c][i]);
+                max = Math.max(max, intColumns[c][i]);
+            }
+            mins[c] = min;
+            maxes[c] = max;
+        }
+
+        extremesValid = true;
+    }
+
+    /**
+     * Gets the index of an integer column
+     *
+     * @param modelClass Data model class containing the metric (e.g. <code>TeleOp.class</code>)
+     * @param metricName Name of the metric, in camel case
+     * @return Index of the column
+     * @throws IllegalArgumentException if the metric is not an integer metric of the data model
+     */
+    private int getIntColumnIndex(Class<?> modelClass, String metricName) {
+        Integer index = intColumnIndices.get(getColumnKey(modelClass, metricName));
+        if (index == null) {
+            throw new IllegalArgumentException("No integer metric " + metricName + " in " + modelClass.getSimpleName());
+        }
+        return index;
+    }
+
+    /**
+     * Gets the index of a boolean column
+     *
+     * @param modelClass Data model class containing the metric (e.g. <code>Autonomous.class</code>)
+     * @param metricName Name of the metric, in camel case
+     * @return Index of the column
+     * @throws IllegalArgumentException if the metric is not a boolean metric of the data model
+     */
+    private int getBooleanColumnIndex(Class<?> modelClass, String metricName) {
+        Integer index = booleanColumnIndices.get(getColumnKey(modelClass, metricName));
+        if (index == null) {
+            throw new IllegalArgumentException("No boolean metric " + metricName + " in " + modelClass.getSimpleName());
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves a boolean value of a row
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @param row        Index of the row, from 0 to <code>size() - 1</code>
+     * @return The value of the metric for that row
+     */
+    public boolean getBoolean(Class<?> modelClass, String metricName, int row) {
+        return (booleanColumns[getBooleanColumnIndex(modelClass, metricName)][row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Counts the rows in which a boolean metric is true
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return Number of rows with a true value
+     */
+    public int countTrue(Class<?> modelClass, String metricName) {
+        return trueCounts[getBooleanColumnIndex(modelClass, metricName)];
+    }
+
+    /**
+     * Retrieves the mean of an integer metric
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return The arithmetic mean of the metric, 0 if the store is empty
+     */
+    public double getMean(Class<?> modelClass, String metricName) {
+        if (size == 0) {
+            return 0;
+        }
+        return (double) sums[getIntColumnIndex(modelClass, metricName)] / size;
+    }
+
+    /**
+     * Retrieves the sample standard deviation of an integer metric
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return The sample standard deviation of the metric, 0 if the store has fewer than two rows
+     */
+    public double getStandardDeviation(Class<?> modelClass, String metricName) {
+        if (size < 2) {
+            return 0;
+        }
+        return Math.sqrt(sumSquareDevs[getIntColumnIndex(modelClass, metricName)] / (size - 1));
+    }
+
+    /**
+     * Retrieves the minimum value of an integer metric
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return The minimum value, <code>Integer.MAX_VALUE</code> if the store is empty
+     */
+    public int getMin(Class<?> modelClass, String metricName) {
+        refreshExtremes();
+        return mins[getIntColumnIndex(modelClass, metricName)];
+    }
+
+    /**
+     * Retrieves the maximum value of an integer metric
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return The maximum value, <code>Integer.MIN_VALUE</code> if the store is empty
+     */
+    public int getMax(Class<?> modelClass, String metricName) {
+        refreshExtremes();
+        return maxes[getIntColumnIndex(modelClass, metricName)];
+    }
+
+    /**
+     * Retrieves a quantile of an integer metric, using the nearest-rank definition
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @param quantile   Quantile to retrieve, from 0 to 1 (e.g. 0.5 for the median)
+     * @return The smallest value with at least <code>quantile</code> of the rows at or below it, 0 if the store is
+     * empty
+     */
+    public int getQuantile(Class<?> modelClass, String metricName, double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+
+        int c = getIntColumnIndex(modelClass, metricName);
+        if (size == 0) {
+            return 0;
+        }
+
+        int[] sortedValues = Arrays.copyOf(intColumns[c], size);
+        Arrays.sort(sortedValues);
+        return sortedValues[Math.max(0, (int) Math.ceil(quantile * size) - 1)];
+    }
+
+    /**
+     * Builds a quantile sketch of an integer metric from its column, to be merged with sketches of the metric from
+     * other stores
+     *
+     * @param modelClass Data model class containing the metric
+     * @param metricName Name of the metric, in camel case
+     * @return New sketch of the metric's values
+     */
+    public QuantileSketch createQuantileSketch(Class<?> modelClass, String metricName) {
+        int c = getIntColumnIndex(modelClass, metricName);
+
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < size; i++) {
+            sketch.update(intColumns[c][i]);
+        }
+        return sketch;
+    }
+
+    /**
+     * Gets the number of rows in the store
+     *
+     * @return Number of entries in the store
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,230 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registry of the metrics of a data model class (e.g. <code>TeleOp</code>), with an accessor for each metric.
+ * Getters are resolved and compiled into lambdas once per class, so reading a metric costs the same as calling its
+ * getter directly, without the reflective lookup and boxing of <code>Method.invoke</code>.
+ */
+public class MetricRegistry {
+
+    private static final ClassValue<MetricRegistry> registries = new ClassValue<MetricRegistry>() {
+        @Override
+        protected MetricRegistry computeValue(Class<?> modelClass) {
+            return new MetricRegistry(modelClass);
+        }
+    };
+
+    /**
+     * Accessors of the metrics, in the order their fields are declared
+     */
+    private final ArrayList<MetricAccessor> metrics;
+
+    /**
+     * Accessors of the metrics, keyed by the lower case metric name
+     */
+    private final HashMap<String, MetricAccessor> metricsByName;
+
+    /**
+     * Builds the accessors for every <code>int</code>, <code>boolean</code>, and <code>String</code> field of a data
+     * model class that has a getter
+     *
+     * @param modelClass Data model class
+     */
+    private MetricRegistry(Class<?> modelClass) {
+        metrics = new ArrayList<>();
+        metricsByName = new HashMap<>();
+
+        HashMap<String, Method> getters = new HashMap<>();
+        for (Method m : modelClass.getMethods()) {
+            if (m.getParameterCount() == 0) {
+                getters.put(m.getName().toLowerCase(), m);
+            }
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        for (Field field : modelClass.getDeclaredFields()) {
+            Class<?> type = field.getType();
+            if (type != int.class && type != boolean.class && type != String.class) {
+                continue;
+            }
+
+            // IntelliJ auto-generated getters are prefixed with "is" for booleans and "get" otherwise
+            Method getter = getters.get((type == boolean.class ? "is" : "get") + field.getName().toLowerCase());
+            if (getter == null || getter.getReturnType() != type) {
+                continue;
+            }
+
+            try {
+                MetricAccessor accessor = new MetricAccessor(field.getName(), type, lookup.unreflect(getter), lookup);
+                metrics.add(accessor);
+                metricsByName.put(field.getName().toLowerCase(), accessor);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not create accessor for " + modelClass.getSimpleName() + "." +
+                        field.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the metric registry of a data model class, building it on first use
+     *
+     * @param modelClass Data model class (e.g. <code>Autonomous.class</code>)
+     * @return The registry of the class's metrics
+     */
+    public static MetricRegistry forClass(Class<?> modelClass) {
+        return registries.get(modelClass);
+    }
+
+    /**
+     * Gets the accessor of a metric
+     *
+     * @param metricName Name of the metric, in camel case. Case is ignored.
+     * @return The metric's accessor, <code>null</code> if the class does not contain the metric
+     */
+    public MetricAccessor get(String metricName) {
+        return metricsByName.get(metricName.toLowerCase());
+    }
+
+    /**
+     * Gets the accessors of all metrics in the data model class
+     *
+     * @return Unmodifiable list of accessors, in the order their fields are declared
+     */
+    public List<MetricAccessor> getMetrics() {
+        return Collections.unmodifiableList(metrics);
+    }
+
+    /**
+     * Typed accessor of a single metric. Integer and boolean metrics are read without boxing.
+     */
+    public static class MetricAccessor {
+
+        private final String name;
+        private final Class<?> type;
+
+        private final ToIntFunction<Object> intGetter;
+        private final Predicate<Object> booleanGetter;
+        private final Function<Object, Object> objectGetter;
+
+        /**
+         * Compiles the getter of a metric into a lambda of the matching functional interface
+         *
+         * @param name   Name of the metric
+         * @param type   Type of the metric, either <code>int</code>, <code>boolean</code>, or <code>String</code>
+         * @param getter Method handle of the metric's getter
+         * @param lookup Lookup used to create the lambda
+         * @throws Throwable if the lambda cannot be created
+         */
+        @SuppressWarnings("unchecked")
+        MetricAccessor(String name, Class<?> type, MethodHandle getter, MethodHandles.Lookup lookup) throws Throwable {
+            this.name = name;
+            this.type = type;
+
+            intGetter = type != int.class ? null : (ToIntFunction<Object>) createLambda(lookup,
+                    ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), getter);
+            booleanGetter = type != boolean.class ? null : (Predicate<Object>) createLambda(lookup, Predicate.class,
+                    "test", MethodType.methodType(boolean.class, Object.class), getter);
+            objectGetter = type == int.class || type == boolean.class ? null :
+                    (Function<Object, Object>) createLambda(lookup, Function.class, "apply",
+                            MethodType.methodType(Object.class, Object.class), getter);
+        }
+
+        /**
+         * Creates a lambda implementing a functional interface with a method handle
+         *
+         * @param lookup         Lookup with access to the method handle
+         * @param interfaceClass Functional interface to implement
+         * @param methodName     Name of the functional interface's method
+         * @param erasedType     Erased type of the functional interface's method
+         * @param implementation Method handle that implements the method
+         * @return Instance of the functional interface
+         * @throws Throwable if the lambda cannot be created
+         */
+        private static Object createLambda(MethodHandles.Lookup lookup, Class<?> interfaceClass, String methodName,
+                                           MethodType erasedType, MethodHandle implementation) throws Throwable {
+            CallSite site = LambdaMetafactory.metafactory(lookup, methodName, MethodType.methodType(interfaceClass),
+                    erasedType, implementation, implementation.type());
+            return site.getTarget().invoke();
+        }
+
+        /**
+         * Reads the metric as an integer, with booleans as 1 or 0
+         *
+         * @param model Data model object containing the metric
+         * @return The value of the metric
+         * @throws IllegalStateException if the metric is a string
+         */
+        public int getInt(Object model) {
+            if (intGetter != null) {
+                return intGetter.applyAsInt(model);
+            } else if (booleanGetter != null) {
+                return booleanGetter.test(model) ? 1 : 0;
+            }
+            throw new IllegalStateException(name + " is not a numeric metric");
+        }
+
+        /**
+         * Reads the metric as a boolean
+         *
+         * @param model Data model object containing the metric
+         * @return The value of the metric
+         * @throws IllegalStateException if the metric is not a boolean
+         */
+        public boolean getBoolean(Object model) {
+            if (booleanGetter == null) {
+                throw new IllegalStateException(name + " is not a boolean metric");
+            }
+            return booleanGetter.test(model);
+        }
+
+        /**
+         * Reads the metric as a double, with booleans as 1.0 or 0.0
+         *
+         * @param model Data model object containing the metric
+         * @return The value of the metric
+         * @throws IllegalStateException if the metric is a string
+         */
+        public double getDouble(Object model) {
+            return getInt(model);
+        }
+
+        /**
+         * Reads the metric as an object, boxing primitive values. Used where values are converted to strings.
+         *
+         * @param model Data model object containing the metric
+         * @return The value of the metric
+         */
+        public Object getValue(Object model) {
+            if (intGetter != null) {
+                return intGetter.applyAsInt(model);
+            } else if (booleanGetter != null) {
+                return booleanGetter.test(model);
+            }
+            return objectGetter.apply(model);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+    }
+}
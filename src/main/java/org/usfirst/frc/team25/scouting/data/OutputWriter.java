@@ -0,0 +1,169 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes generated output files (spreadsheets, picklists, JSON files, etc.) crash-safely.
+ * Contents are streamed to a temporary file in the same directory, which is only renamed over the output file once
+ * it is completely written, so a crash or a file locked by another program never leaves a half-written output.
+ * Asynchronous writes run in submission order on a dedicated I/O thread.
+ */
+public class OutputWriter {
+
+    /**
+     * Single I/O thread, so that writes complete in the order they are submitted. The thread is not a daemon, so
+     * pending writes finish before the application exits, and it stops once idle so it does not keep the JVM alive.
+     */
+    private static final ThreadPoolExecutor IO_EXECUTOR;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static {
+        IO_EXECUTOR = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "Output writer"));
+        IO_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Writes a file on the I/O thread
+     *
+     * @param file    File object containing the output filename and directory
+     * @param content Content to stream to the file
+     * @return Future completed with true once the file is written, or false if it could not be written
+     */
+    public static CompletableFuture<Boolean> writeAsync(File file, Content content) {
+        return writeAsync(file, content, false);
+    }
+
+    /**
+     * Writes a file on the I/O thread, optionally gzip-compressing it
+     *
+     * @param file     File object containing the output filename and directory
+     * @param content  Content to stream to the file
+     * @param compress True to gzip-compress the contents
+     * @return Future completed with true once the file is written, or false if it could not be written
+     */
+    public static CompletableFuture<Boolean> writeAsync(File file, Content content, boolean compress) {
+        return CompletableFuture.supplyAsync(() -> write(file, content, compress), IO_EXECUTOR);
+    }
+
+    /**
+     * Writes a file on the I/O thread
+     *
+     * @param rootDirectory Directory in which the file is written
+     * @param fileName      Name of the file, without the extension
+     * @param extension     Extension of the file, without the period
+     * @param content       Content to stream to the file
+     * @return Future completed with true once the file is written, or false if it could not be written
+     */
+    public static CompletableFuture<Boolean> writeAsync(File rootDirectory, String fileName, String extension,
+                                                        Content content) {
+        return writeAsync(new File(rootDirectory, fileName + "." + extension), content);
+    }
+
+    /**
+     * Runs a task on the I/O thread after all previously submitted writes, such as one that depends on those files
+     *
+     * @param task Task to run
+     * @return Future completed with the result of the task
+     */
+    public static <T> CompletableFuture<T> runAfterWrites(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, IO_EXECUTOR);
+    }
+
+    /**
+     * Writes a file on the calling thread, through a temporary file that replaces the output file once complete
+     *
+     * @param file    File object containing the output filename and directory
+     * @param content Content to stream to the file
+     * @return True if the file was written, false otherwise. The previous output file is unchanged on failure.
+     */
+    public static boolean write(File file, Content content) {
+        return write(file, content, false);
+    }
+
+    /**
+     * Writes a file on the calling thread, through a temporary file that replaces the output file once complete
+     *
+     * @param file     File object containing the output filename and directory
+     * @param content  Content to stream to the file
+     * @param compress True to gzip-compress the contents
+     * @return True if the file was written, false otherwise. The previous output file is unchanged on failure.
+     */
+    public static boolean write(File file, Content content, boolean compress) {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+
+        try {
+            // Closing the writer also releases the native compressor of a gzip stream, even if the content fails
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream output = compress ?
+                         new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) :
+                         Channels.newOutputStream(channel);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                         BUFFER_SIZE)) {
+                content.writeTo(writer);
+                writer.flush();
+                if (output instanceof GZIPOutputStream) {
+                    ((GZIPOutputStream) output).finish();
+                }
+
+                // Ensures the contents are on disk before the rename makes them visible
+                channel.force(false);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            DataDirectoryIndex.invalidate(target.getParent().toFile());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // IOExceptions are thrown if the output file is locked, e.g. a spreadsheet that is open in Excel
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException deleteException) {
+                deleteException.printStackTrace();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Contents of an output file, streamed to a writer rather than materialized as a string
+     */
+    @FunctionalInterface
+    public interface Content {
+
+        /**
+         * Writes the contents of the output file
+         *
+         * @param writer Buffered writer to the output file, flushed and closed by <code>OutputWriter</code>
+         * @throws IOException if the contents cannot be written
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+}
@@ -5,11 +5,11 @@ import org.usfirst.frc.team25.scouting.data.models.RankingTree;
 import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class to create various picklists with different methodologies
@@ -143,8 +143,10 @@ public class PicklistGenerator {
      * while the worse team gets -1 point. Equal teams receive zero points.
      * May be inaccurate due to one team playing consistently adjacent to better teams, etc.
      * Not recommended for serious analysis.
+     *
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generateComparePointList() {
+    public CompletableFuture<Boolean> generateComparePointList() {
         HashMap<Integer, Double> compareList = new HashMap<>();
         for (Comparison comp : comparisons) {
             int better = comp.getBetterTeam();
@@ -162,12 +164,7 @@ public class PicklistGenerator {
             }
         }
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Compare Points - " + eventName, "txt",
-                    hashMapToStringList(compareList));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        return outputPicklist("Compare Points", hashMapToStringList(compareList));
     }
 
     /**
@@ -194,8 +191,10 @@ public class PicklistGenerator {
      * May be inaccurate due to some teams receiving more entries than others
      * and the different rating scales of each scouts (some may tend to give higher ratings, etc.)
      * Generally representative of robot ability.
+     *
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generatePickPointList() {
+    public CompletableFuture<Boolean> generatePickPointList() {
         // Extract raw values for each team
         HashMap<Integer, ArrayList<Integer>> pickPointSets = new HashMap<>();
 
@@ -227,12 +226,7 @@ public class PicklistGenerator {
         }
 
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Pick Points - " + eventName, "txt",
-                    hashMapToStringList(pickPoints));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        return outputPicklist("Pick Points", hashMapToStringList(pickPoints));
     }
 
     /**
@@ -243,8 +237,9 @@ public class PicklistGenerator {
      *
      * @param knownPartners A list of teams reports representing teams that each team is always allied with, to be
      *                      used as a baseline value for point contribution
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generateCalculatedPickAbilityList(ArrayList<TeamReport> knownPartners) {
+    public CompletableFuture<Boolean> generateCalculatedPickAbilityList(ArrayList<TeamReport> knownPartners) {
         double baselineScore = 0.0;
         if (knownPartners.size() != 0) {
             baselineScore = new AllianceReport(knownPartners).getPredictedValue("totalPoints");
@@ -273,12 +268,7 @@ public class PicklistGenerator {
             pickPoints.put(team, Stats.round(pointValue, 2));
         }
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Point Contributions - " + eventName, "txt",
-                    hashMapToStringList(pickPoints));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        return outputPicklist("Point Contributions", hashMapToStringList(pickPoints));
     }
 
     /**
@@ -289,8 +279,10 @@ public class PicklistGenerator {
      * Running the method multiple times will lead to different lists, but the top and bottom tiers are generally
      * consistent.
      * Note, however, that we may already be reaching the best possible trees
+     *
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generateBogoCompareList() {
+    public CompletableFuture<Boolean> generateBogoCompareList() {
 
         RankingTree bestTree = new RankingTree(teamNums);
         double bestCompPer = 0;
@@ -351,12 +343,7 @@ public class PicklistGenerator {
 
         //generateHeadToHeadList(bestTree.toArrayList(), "bogo");
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Bogo Compare - " + eventName, "txt",
-                    rankTreeStringToStringList(bestTree));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        return outputPicklist("Bogo Compare", rankTreeStringToStringList(bestTree));
     }
 
     /**
@@ -384,8 +371,9 @@ public class PicklistGenerator {
      * Essentially an implementation of bubble sort.
      *
      * @param orderedList Ranked list to be processed
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generateHeadToHeadList(ArrayList<Integer> orderedList) {
+    public CompletableFuture<Boolean> generateHeadToHeadList(ArrayList<Integer> orderedList) {
 
         boolean swapsNeeded;
         do {
@@ -404,13 +392,7 @@ public class PicklistGenerator {
             }
         } while (swapsNeeded);
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Head to Head - " + eventName, "txt",
-                    arrayListToStringList(orderedList));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
-
+        return outputPicklist("Head to Head", arrayListToStringList(orderedList));
     }
 
     public static String generateComparisonMatrix(ArrayList<Integer> teamList,
@@ -458,8 +440,10 @@ public class PicklistGenerator {
      * TODO Improve upon this method, possibly creating a way to insert new nodes BETWEEN existing ones
      * e.g. If C is level 0, A is level 1, and A&gt;B&gt;C, we shouldn't force B to be either level 0 or 1,
      * but have B be level 1 and promote all current nodes on level 1.
+     *
+     * @return Future completed with true once the picklist is written, false otherwise
      */
-    public void generateTopologicalSortList() {
+    public CompletableFuture<Boolean> generateTopologicalSortList() {
         RankingTree tree = new RankingTree();
 
         //Start creating tree with a random team
@@ -618,12 +602,19 @@ public class PicklistGenerator {
             }
         }
 
-        try {
-            FileManager.outputFile(outputDirectory, "Picklist - Topological Sort - " + eventName, "txt",
-                    rankTreeStringToStringList(tree));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        return outputPicklist("Topological Sort", rankTreeStringToStringList(tree));
+    }
+
+    /**
+     * Writes a picklist to the output directory on the output thread
+     *
+     * @param methodology Name of the picklist methodology, used in the file name
+     * @param picklist    Formatted picklist
+     * @return Future completed with true once the picklist is written, false otherwise
+     */
+    private CompletableFuture<Boolean> outputPicklist(String methodology, String picklist) {
+        return OutputWriter.writeAsync(outputDirectory, "Picklist - " + methodology + " - " + eventName, "txt",
+                writer -> writer.write(picklist));
     }
 
 }
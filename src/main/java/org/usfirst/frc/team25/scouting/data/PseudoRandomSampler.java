@@ -0,0 +1,61 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler that draws independent pseudorandom Normal values from each block's random stream with the polar method.
+ * The standard errors of its results shrink with the square root of the number of iterations.
+ */
+public class PseudoRandomSampler implements SimulationSampler {
+
+    @Override
+    public BlockStream createBlockStream(long seed, SplittableRandom random, int firstIteration, int dimension) {
+        return new PolarStream(random);
+    }
+
+    private static class PolarStream implements BlockStream {
+
+        private final SplittableRandom random;
+
+        // Second value generated by the polar method, returned by the next call to nextGaussian
+        private double nextGaussian;
+        private boolean haveNextGaussian;
+
+        PolarStream(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public void nextStandardNormals(double[] values) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = nextGaussian();
+            }
+        }
+
+        /**
+         * Draws a value from the standard Normal distribution with the polar method, as
+         * <code>SplittableRandom</code> does not provide one. <code>StrictMath</code> keeps values identical across
+         * platforms.
+         *
+         * @return A standard Normal value
+         */
+        private double nextGaussian() {
+            if (haveNextGaussian) {
+                haveNextGaussian = false;
+                return nextGaussian;
+            }
+
+            double v1, v2, s;
+            do {
+                v1 = 2 * random.nextDouble() - 1;
+                v2 = 2 * random.nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextGaussian = v2 * multiplier;
+            haveNextGaussian = true;
+            return v1 * multiplier;
+        }
+    }
+}
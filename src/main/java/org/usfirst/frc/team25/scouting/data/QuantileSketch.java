@@ -0,0 +1,301 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch of a metric, in the style of the KLL sketch. Values are kept in a hierarchy of
+ * compactors, where each value at level <code>h</code> stands for <code>2^h</code> inserted values. When the sketch
+ * is full, the lowest full level is sorted and every other value is promoted to the next level, so memory stays
+ * bounded by roughly three times the accuracy parameter however many values are added.
+ * Quantiles are exact until the number of values exceeds the accuracy parameter. Sketches of the same metric, such as
+ * those of one team at several events, can be merged.
+ */
+public class QuantileSketch {
+
+    /**
+     * Accuracy parameter of the sketches exported by team reports. Quantiles stay exact until a team has more than this
+     * many entries across the merged events.
+     */
+    public static final int DEFAULT_ACCURACY = 200;
+
+    /**
+     * Ratio between the capacities of adjacent levels
+     */
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    private final int accuracy;
+
+    /**
+     * Values in each level, and the number of values in each level
+     */
+    private double[][] levels;
+    private int[] levelSizes;
+    private int numLevels;
+
+    /**
+     * Bit <code>h</code> is set if the next compaction of level <code>h</code> promotes the odd-indexed values.
+     * Alternating between even and odd values keeps compactions unbiased and the sketch deterministic.
+     */
+    private long oddOffsets;
+
+    private long count;
+    private double min, max;
+
+    /**
+     * Values and cumulative weights of all levels, sorted by value. Built on the first quantile lookup after a change.
+     */
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    /**
+     * Constructs an empty sketch with the default accuracy
+     */
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    /**
+     * Constructs an empty sketch
+     *
+     * @param accuracy Capacity of the highest level. Higher values use more memory but give more accurate quantiles.
+     */
+    public QuantileSketch(int accuracy) {
+        if (accuracy < 2) {
+            throw new IllegalArgumentException("Accuracy must be at least 2");
+        }
+        this.accuracy = accuracy;
+        levels = new double[][]{new double[8]};
+        levelSizes = new int[1];
+        numLevels = 1;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Copy constructor, used to merge sketches without changing the originals
+     *
+     * @param other Sketch to copy
+     */
+    public QuantileSketch(QuantileSketch other) {
+        accuracy = other.accuracy;
+        numLevels = other.numLevels;
+        levels = new double[other.levels.length][];
+        for (int h = 0; h < numLevels; h++) {
+            levels[h] = Arrays.copyOf(other.levels[h], other.levels[h].length);
+        }
+        levelSizes = Arrays.copyOf(other.levelSizes, other.levelSizes.length);
+        oddOffsets = other.oddOffsets;
+        count = other.count;
+        min = other.min;
+        max = other.max;
+    }
+
+    /**
+     * Adds a value to the sketch
+     *
+     * @param value Value to add
+     */
+    public void update(double value) {
+        append(0, value);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        compress();
+        sortedValues = null;
+    }
+
+    /**
+     * Merges the values of another sketch into this sketch. The other sketch is unchanged.
+     *
+     * @param other Sketch of the same metric, possibly with a different accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        for (int h = 0; h < other.numLevels; h++) {
+            for (int i = 0; i < other.levelSizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        compress();
+        sortedValues = null;
+    }
+
+    /**
+     * Appends a value to a level, adding the level if it does not exist
+     *
+     * @param level Level to append to
+     * @param value Value to append
+     */
+    private void append(int level, double value) {
+        while (level >= numLevels) {
+            if (numLevels == levels.length) {
+                levels = Arrays.copyOf(levels, numLevels * 2);
+                levelSizes = Arrays.copyOf(levelSizes, numLevels * 2);
+            }
+            levels[numLevels] = new double[8];
+            numLevels++;
+        }
+
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][levelSizes[level]++] = value;
+    }
+
+    /**
+     * Calculates the capacity of a level, which shrinks geometrically from the highest level
+     *
+     * @param level Level of the compactor
+     * @return Maximum number of values kept in the level
+     */
+    private int getCapacity(int level) {
+        return Math.max(2, (int) Math.ceil(accuracy * Math.pow(CAPACITY_RATIO, numLevels - 1 - level)));
+    }
+
+    /**
+     * Compacts full levels until the sketch is within its total capacity
+     */
+    private void compress() {
+        while (true) {
+            int totalSize = 0, totalCapacity = 0;
+            for (int h = 0; h < numLevels; h++) {
+                totalSize += levelSizes[h];
+                totalCapacity += getCapacity(h);
+            }
+            if (totalSize <= totalCapacity) {
+                return;
+            }
+
+            for (int h = 0; h < numLevels; h++) {
+                if (levelSizes[h] >= getCapacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other value to the next level, halving the values while doubling their weight.
+     * If the level has an odd number of values, the smallest stays in the level.
+     *
+     * @param level Level to compact
+     */
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(values, 0, size);
+
+        int start = size % 2;
+        int offset = (oddOffsets & (1L << level)) != 0 ? 1 : 0;
+        oddOffsets ^= 1L << level;
+
+        for (int i = start + offset; i < size; i += 2) {
+            append(level + 1, values[i]);
+        }
+
+        levelSizes[level] = start;
+    }
+
+    /**
+     * Sorts the values of all levels and accumulates their weights for quantile lookups
+     */
+    private void buildSortedView() {
+        int totalSize = 0;
+        for (int h = 0; h < numLevels; h++) {
+            totalSize += levelSizes[h];
+        }
+
+        // Indices are sorted by value, so that each value stays paired with its weight
+        double[] values = new double[totalSize];
+        long[] weights = new long[totalSize];
+        Integer[] order = new Integer[totalSize];
+        int n = 0;
+        for (int h = 0; h < numLevels; h++) {
+            for (int i = 0; i < levelSizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n] = 1L << h;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        sortedValues = new double[totalSize];
+        cumulativeWeights = new long[totalSize];
+        long cumulativeWeight = 0;
+        for (int i = 0; i < totalSize; i++) {
+            sortedValues[i] = values[order[i]];
+            cumulativeWeight += weights[order[i]];
+            cumulativeWeights[i] = cumulativeWeight;
+        }
+    }
+
+    /**
+     * Estimates a quantile of the values added to the sketch, using the nearest-rank definition
+     *
+     * @param quantile Quantile to estimate, from 0 to 1 (e.g. 0.5 for the median)
+     * @return The smallest value with at least <code>quantile</code> of the values at or below it, 0 if the sketch is
+     * empty
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (quantile == 0) {
+            return min;
+        }
+        if (quantile == 1) {
+            return max;
+        }
+
+        if (sortedValues == null) {
+            buildSortedView();
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        int index = Arrays.binarySearch(cumulativeWeights, rank);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return sortedValues[Math.min(index, sortedValues.length - 1)];
+    }
+
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the minimum value added to the sketch
+     *
+     * @return The exact minimum, positive infinity if the sketch is empty
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Retrieves the maximum value added to the sketch
+     *
+     * @return The exact maximum, negative infinity if the sketch is empty
+     */
+    public double getMax() {
+        return max;
+    }
+}
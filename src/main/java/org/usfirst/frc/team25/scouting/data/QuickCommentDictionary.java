@@ -0,0 +1,84 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import org.usfirst.frc.team25.scouting.data.models.PostMatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of an event assigning each robot quick comment a bit of a 64-bit mask, so that the quick comment
+ * selections of a scout entry can be stored as a single <code>long</code>. Frequencies and checks of quick comments
+ * are then bit operations rather than lookups in each entry's map of selections. Comments beyond the first 64 have no
+ * bit, and are read from the map of selections instead.
+ */
+public class QuickCommentDictionary {
+
+    /**
+     * Bit of a quick comment that does not fit in the mask
+     */
+    public static final int NO_BIT = -1;
+
+    /**
+     * Quick comments that indicate a robot was dysfunctional during a match, assigned the first bits of every
+     * dictionary
+     */
+    private static final String[] DYSFUNCTIONAL_COMMENTS = {"Lost communications", "Tipped over"};
+
+    /**
+     * Mask of the quick comments that indicate a robot was dysfunctional
+     */
+    public static final long DYSFUNCTIONAL_MASK = (1L << DYSFUNCTIONAL_COMMENTS.length) - 1;
+
+    private final HashMap<String, Integer> bits;
+
+    /**
+     * Constructs a dictionary with only the dysfunctional quick comments assigned
+     */
+    public QuickCommentDictionary() {
+        bits = new HashMap<>();
+        for (String comment : DYSFUNCTIONAL_COMMENTS) {
+            getBit(comment);
+        }
+    }
+
+    /**
+     * Retrieves the bit of a quick comment, assigning it the next free bit if it does not have one
+     *
+     * @param comment Text of the quick comment
+     * @return Index of the comment's bit, from 0 to 63; <code>NO_BIT</code> if all bits are assigned to other comments
+     */
+    public synchronized int getBit(String comment) {
+        Integer bit = bits.get(comment);
+        if (bit == null) {
+            if (bits.size() == Long.SIZE) {
+                return NO_BIT;
+            }
+            bit = bits.size();
+            bits.put(comment, bit);
+        }
+        return bit;
+    }
+
+    /**
+     * Encodes the quick comment selections of a post-match model as masks. Comments without a bit are left out.
+     *
+     * @param postMatch Post-match model whose masks are set
+     */
+    public void encode(PostMatch postMatch) {
+        long presentMask = 0, selectedMask = 0;
+
+        for (Map.Entry<String, Boolean> selection : postMatch.getRobotQuickCommentSelections().entrySet()) {
+            int bit = getBit(selection.getKey());
+            if (bit == NO_BIT) {
+                continue;
+            }
+
+            presentMask |= 1L << bit;
+            if (selection.getValue()) {
+                selectedMask |= 1L << bit;
+            }
+        }
+
+        postMatch.setQuickCommentMasks(presentMask, selectedMask);
+    }
+}
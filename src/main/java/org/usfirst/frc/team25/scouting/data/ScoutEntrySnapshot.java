@@ -0,0 +1,439 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import org.usfirst.frc.team25.scouting.data.models.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Class of static methods used to write and read compact binary snapshots of scout entries.
+ * A snapshot is saved next to a JSON data file and is loaded instead of the JSON file while the JSON file has the
+ * exact length and modification time recorded in the snapshot, avoiding reflection-driven JSON parsing on start-up.
+ * <p>
+ * Snapshot layout (version 2), in big-endian order:
+ * <ul>
+ * <li>Magic number and format version</li>
+ * <li>Length and modification time of the JSON data file when the snapshot was written</li>
+ * <li>String table: count, then the UTF-8 length and bytes of each string</li>
+ * <li>Quick comment keys: count, then the string table index of each key</li>
+ * <li>Entry count, then one fixed-width record of <code>RECORD_SIZE</code> bytes per entry</li>
+ * </ul>
+ * Strings within records are stored as string table indices, with -1 representing <code>null</code>. Boolean
+ * fields of each data model are packed into a single flags integer, and quick comments are packed into two bitmasks
+ * indexed by their position in the key list.
+ */
+public class ScoutEntrySnapshot {
+
+    /**
+     * File extension of snapshot files, without the period
+     */
+    public static final String SNAPSHOT_EXTENSION = "snapshot";
+
+    /**
+     * "RRSS" in ASCII
+     */
+    private static final int MAGIC_NUMBER = 0x52525353;
+
+    /**
+     * Incremented whenever the record layout changes, so that outdated snapshots fall back to JSON
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Number of bytes before the string table, read on their own to check if a snapshot is current
+     */
+    private static final int PREFIX_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    private static final int PRE_MATCH_SIZE = 8 * Integer.BYTES;
+    private static final int AUTONOMOUS_SIZE = 7 * Integer.BYTES;
+    private static final int TELE_OP_SIZE = 17 * Integer.BYTES;
+    private static final int POST_MATCH_SIZE = 6 * Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * Number of bytes in the fixed-width record of a single entry
+     */
+    private static final int RECORD_SIZE = PRE_MATCH_SIZE + AUTONOMOUS_SIZE + TELE_OP_SIZE + POST_MATCH_SIZE;
+
+    /**
+     * Gets the snapshot file associated with a JSON data file
+     *
+     * @param jsonFile File object of the JSON data file
+     * @return File object of the snapshot, which may not exist
+     */
+    public static File getSnapshotFile(File jsonFile) {
+        String baseName = jsonFile.getName().split(FileManager.FILE_EXTENSION_REGEX)[0];
+        return new File(jsonFile.getParentFile(), baseName + "." + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Determines if the snapshot of a JSON data file exists and was written from the JSON file as it is now. Both the
+     * length and modification time must match exactly, so that a JSON file replaced by a copy with an older preserved
+     * modification time is not shadowed by a stale snapshot.
+     *
+     * @param jsonFile File object of the JSON data file
+     * @return True if the snapshot can be loaded in place of the JSON file, false otherwise
+     */
+    public static boolean isSnapshotCurrent(File jsonFile) {
+        File snapshotFile = getSnapshotFile(jsonFile);
+        if (!snapshotFile.exists()) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE);
+            while (prefix.hasRemaining() && channel.read(prefix) >= 0) {
+                // Reads until the prefix is full or the file ends
+            }
+            if (prefix.hasRemaining()) {
+                return false;
+            }
+            prefix.flip();
+
+            return prefix.getInt() == MAGIC_NUMBER && prefix.getInt() == FORMAT_VERSION &&
+                    prefix.getLong() == jsonFile.length() && prefix.getLong() == jsonFile.lastModified();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of scout entries next to a JSON data file. The snapshot is written to a temporary file first,
+     * so an interrupted write never leaves a partial snapshot behind. The JSON file's current length and modification
+     * time are recorded, so it should be completely written before this is called.
+     *
+     * @param entries  Scout entries to be saved, which should be the same as those in <code>jsonFile</code>
+     * @param jsonFile File object of the JSON data file that the snapshot accompanies
+     * @return True if the snapshot was written, false otherwise
+     */
+    public static boolean writeSnapshot(ArrayList<ScoutEntry> entries, File jsonFile) {
+        ArrayList<String> stringTable = new ArrayList<>();
+        HashMap<String, Integer> stringIndices = new HashMap<>();
+        ArrayList<String> quickCommentKeys = new ArrayList<>();
+
+        for (ScoutEntry entry : entries) {
+            for (String key : entry.getPostMatch().getRobotQuickCommentSelections().keySet()) {
+                if (!quickCommentKeys.contains(key)) {
+                    quickCommentKeys.add(key);
+                    getStringIndex(key, stringTable, stringIndices);
+                }
+            }
+        }
+
+        // Quick comments are stored as 64-bit masks
+        if (quickCommentKeys.size() > Long.SIZE) {
+            return false;
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+        for (ScoutEntry entry : entries) {
+            writeRecord(records, entry, quickCommentKeys, stringTable, stringIndices);
+        }
+        records.flip();
+
+        ArrayList<byte[]> encodedStrings = new ArrayList<>();
+        int headerSize = PREFIX_SIZE + Integer.BYTES + Integer.BYTES * quickCommentKeys.size() + Integer.BYTES * 2;
+        for (String string : stringTable) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(bytes);
+            headerSize += Integer.BYTES + bytes.length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(MAGIC_NUMBER);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(jsonFile.length());
+        header.putLong(jsonFile.lastModified());
+        header.putInt(encodedStrings.size());
+        for (byte[] bytes : encodedStrings) {
+            header.putInt(bytes.length);
+            header.put(bytes);
+        }
+        header.putInt(quickCommentKeys.size());
+        for (String key : quickCommentKeys) {
+            header.putInt(stringIndices.get(key));
+        }
+        header.putInt(entries.size());
+        header.flip();
+
+        File snapshotFile = getSnapshotFile(jsonFile);
+        File tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining() || records.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, records});
+                }
+            }
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            tempFile.delete();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the scout entries in a snapshot through a memory-mapped file
+     *
+     * @param snapshotFile File object of the snapshot
+     * @return ArrayList of the ScoutEntries in the snapshot, or <code>null</code> if the snapshot cannot be read or
+     * was written in a different format version
+     */
+    public static ArrayList<ScoutEntry> readSnapshot(File snapshotFile) {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            // Length and modification time of the JSON data file, checked by isSnapshotCurrent
+            buffer.getLong();
+            buffer.getLong();
+
+            String[] stringTable = new String[buffer.getInt()];
+            for (int i = 0; i < stringTable.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                stringTable[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            String[] quickCommentKeys = new String[buffer.getInt()];
+            for (int i = 0; i < quickCommentKeys.length; i++) {
+                quickCommentKeys[i] = stringTable[buffer.getInt()];
+            }
+
+            int numEntries = buffer.getInt();
+            if (buffer.remaining() != (long) numEntries * RECORD_SIZE) {
+                return null;
+            }
+
+            ArrayList<ScoutEntry> entries = new ArrayList<>(numEntries);
+            for (int i = 0; i < numEntries; i++) {
+                entries.add(readRecord(buffer, quickCommentKeys, stringTable));
+            }
+
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the fixed-width record of a scout entry
+     *
+     * @param buffer           Buffer to write the record to
+     * @param entry            Scout entry to be written
+     * @param quickCommentKeys Ordered list of all quick comment keys in the snapshot
+     * @param stringTable      Ordered list of strings in the snapshot, added to if a new string is found
+     * @param stringIndices    Lookup of strings to their index in <code>stringTable</code>
+     */
+    private static void writeRecord(ByteBuffer buffer, ScoutEntry entry, ArrayList<String> quickCommentKeys,
+                                    ArrayList<String> stringTable, HashMap<String, Integer> stringIndices) {
+        PreMatch preMatch = entry.getPreMatch();
+        buffer.putInt(getStringIndex(preMatch.getScoutName(), stringTable, stringIndices));
+        buffer.putInt(getStringIndex(preMatch.getScoutPos(), stringTable, stringIndices));
+        buffer.putInt(getStringIndex(preMatch.getStartingPos(), stringTable, stringIndices));
+        buffer.putInt(getStringIndex(preMatch.getStartingGamePiece(), stringTable, stringIndices));
+        buffer.putInt(preMatch.getMatchNum());
+        buffer.putInt(preMatch.getTeamNum());
+        buffer.putInt(preMatch.getStartingLevel());
+        buffer.putInt(packFlags(preMatch.isRobotNoShow()));
+
+        Autonomous auto = entry.getAutonomous();
+        buffer.putInt(auto.getRocketCargo());
+        buffer.putInt(auto.getRocketHatches());
+        buffer.putInt(auto.getCargoShipHatches());
+        buffer.putInt(auto.getCargoShipCargo());
+        buffer.putInt(auto.getHatchesDropped());
+        buffer.putInt(auto.getCargoDropped());
+        buffer.putInt(packFlags(auto.isCrossHabLine(), auto.isOpponentCargoShipLineFoul(),
+                auto.isSideCargoShipHatchCapable(), auto.isFrontCargoShipHatchCapable(), auto.isCargoDroppedCargoShip(),
+                auto.isCargoDroppedRocket(), auto.isHatchesDroppedRocket(), auto.isHatchesDroppedCargoShip()));
+
+        TeleOp tele = entry.getTeleOp();
+        buffer.putInt(tele.getCargoShipHatches());
+        buffer.putInt(tele.getRocketLevelOneHatches());
+        buffer.putInt(tele.getRocketLevelTwoHatches());
+        buffer.putInt(tele.getRocketLevelThreeHatches());
+        buffer.putInt(tele.getCargoShipCargo());
+        buffer.putInt(tele.getRocketLevelOneCargo());
+        buffer.putInt(tele.getRocketLevelTwoCargo());
+        buffer.putInt(tele.getRocketLevelThreeCargo());
+        buffer.putInt(tele.getHatchesDropped());
+        buffer.putInt(tele.getCargoDropped());
+        buffer.putInt(tele.getAttemptHabClimbLevel());
+        buffer.putInt(tele.getSuccessHabClimbLevel());
+        buffer.putInt(tele.getAssistingClimbTeamNum());
+        buffer.putInt(tele.getNumPartnerClimbAssists());
+        buffer.putInt(tele.getPartnerClimbAssistEndLevel());
+        buffer.putInt(tele.getPartnerClimbAssistStartLevel());
+        buffer.putInt(packFlags(tele.isAttemptHabClimb(), tele.isSuccessHabClimb(), tele.isClimbAssistedByPartner()));
+
+        PostMatch postMatch = entry.getPostMatch();
+        buffer.putInt(getStringIndex(postMatch.getRobotComment(), stringTable, stringIndices));
+        buffer.putInt(getStringIndex(postMatch.getFocus(), stringTable, stringIndices));
+        buffer.putInt(getStringIndex(postMatch.getComparison(), stringTable, stringIndices));
+        buffer.putInt(postMatch.getTeamOneCompare());
+        buffer.putInt(postMatch.getTeamTwoCompare());
+        buffer.putInt(postMatch.getPickNumber());
+
+        // One mask records which quick comments are present in the entry, the other which of those were selected
+        long presentMask = 0;
+        long selectedMask = 0;
+        HashMap<String, Boolean> quickComments = postMatch.getRobotQuickCommentSelections();
+        for (int i = 0; i < quickCommentKeys.size(); i++) {
+            Boolean selected = quickComments.get(quickCommentKeys.get(i));
+            if (selected != null) {
+                presentMask |= 1L << i;
+                if (selected) {
+                    selectedMask |= 1L << i;
+                }
+            }
+        }
+        buffer.putLong(presentMask);
+        buffer.putLong(selectedMask);
+    }
+
+    /**
+     * Reads the fixed-width record of a scout entry
+     *
+     * @param buffer           Buffer positioned at the start of the record
+     * @param quickCommentKeys Quick comment keys in the snapshot, in the order of the record's bitmasks
+     * @param stringTable      Strings in the snapshot, in the order of their indices
+     * @return The scout entry in the record
+     */
+    private static ScoutEntry readRecord(ByteBuffer buffer, String[] quickCommentKeys, String[] stringTable) {
+        String scoutName = getString(buffer.getInt(), stringTable);
+        String scoutPos = getString(buffer.getInt(), stringTable);
+        String startingPos = getString(buffer.getInt(), stringTable);
+        String startingGamePiece = getString(buffer.getInt(), stringTable);
+        int matchNum = buffer.getInt();
+        int teamNum = buffer.getInt();
+        int startingLevel = buffer.getInt();
+        int preMatchFlags = buffer.getInt();
+
+        PreMatch preMatch = new PreMatch(scoutName, scoutPos, startingPos, matchNum, teamNum, startingLevel,
+                isFlagSet(preMatchFlags, 0), startingGamePiece);
+
+        int autoRocketCargo = buffer.getInt();
+        int autoRocketHatches = buffer.getInt();
+        int autoCargoShipHatches = buffer.getInt();
+        int autoCargoShipCargo = buffer.getInt();
+        int autoHatchesDropped = buffer.getInt();
+        int autoCargoDropped = buffer.getInt();
+        int autoFlags = buffer.getInt();
+
+        Autonomous auto = new Autonomous(autoRocketCargo, autoRocketHatches, autoCargoShipHatches, autoCargoShipCargo,
+                autoHatchesDropped, autoCargoDropped, isFlagSet(autoFlags, 0), isFlagSet(autoFlags, 1),
+                isFlagSet(autoFlags, 2), isFlagSet(autoFlags, 3), isFlagSet(autoFlags, 4), isFlagSet(autoFlags, 5),
+                isFlagSet(autoFlags, 6), isFlagSet(autoFlags, 7));
+
+        int[] teleValues = new int[16];
+        for (int i = 0; i < teleValues.length; i++) {
+            teleValues[i] = buffer.getInt();
+        }
+        int teleFlags = buffer.getInt();
+
+        TeleOp tele = new TeleOp(teleValues[0], teleValues[1], teleValues[2], teleValues[3], teleValues[4],
+                teleValues[5], teleValues[6], teleValues[7], teleValues[8], teleValues[9], isFlagSet(teleFlags, 0),
+                teleValues[10], isFlagSet(teleFlags, 1), teleValues[11], isFlagSet(teleFlags, 2), teleValues[12],
+                teleValues[13], teleValues[14], teleValues[15]);
+
+        String robotComment = getString(buffer.getInt(), stringTable);
+        String focus = getString(buffer.getInt(), stringTable);
+        String comparison = getString(buffer.getInt(), stringTable);
+        int teamOneCompare = buffer.getInt();
+        int teamTwoCompare = buffer.getInt();
+        int pickNumber = buffer.getInt();
+        long presentMask = buffer.getLong();
+        long selectedMask = buffer.getLong();
+
+        HashMap<String, Boolean> quickComments = new HashMap<>();
+        for (int i = 0; i < quickCommentKeys.length; i++) {
+            if ((presentMask & (1L << i)) != 0) {
+                quickComments.put(quickCommentKeys[i], (selectedMask & (1L << i)) != 0);
+            }
+        }
+
+        PostMatch postMatch = new PostMatch(robotComment, quickComments, focus, teamOneCompare, teamTwoCompare,
+                comparison, pickNumber);
+
+        return new ScoutEntry(preMatch, auto, tele, postMatch);
+    }
+
+    /**
+     * Gets the string table index of a string, adding it to the table if it is not present
+     *
+     * @param string        String to look up, may be <code>null</code>
+     * @param stringTable   Ordered list of strings in the snapshot
+     * @param stringIndices Lookup of strings to their index in <code>stringTable</code>
+     * @return Index of the string, -1 if the string is <code>null</code>
+     */
+    private static int getStringIndex(String string, ArrayList<String> stringTable,
+                                      HashMap<String, Integer> stringIndices) {
+        if (string == null) {
+            return -1;
+        }
+
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = stringTable.size();
+            stringTable.add(string);
+            stringIndices.put(string, index);
+        }
+        return index;
+    }
+
+    /**
+     * Gets a string from the string table
+     *
+     * @param index       Index of the string, -1 for <code>null</code>
+     * @param stringTable Strings in the snapshot, in the order of their indices
+     * @return The string at the index
+     */
+    private static String getString(int index, String[] stringTable) {
+        return index == -1 ? null : stringTable[index];
+    }
+
+    /**
+     * Packs boolean values into the bits of an integer, with the first value in the lowest bit
+     *
+     * @param values Boolean values to pack, at most 32
+     * @return Integer with bit <code>i</code> set if <code>values[i]</code> is true
+     */
+    private static int packFlags(boolean... values) {
+        int flags = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i]) {
+                flags |= 1 << i;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Checks if a bit in a packed flags integer is set
+     *
+     * @param flags    Integer created by <code>packFlags</code>
+     * @param position Position of the boolean value in the packed values
+     * @return The boolean value at the position
+     */
+    private static boolean isFlagSet(int flags, int position) {
+        return (flags & (1 << position)) != 0;
+    }
+}
@@ -0,0 +1,35 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of the standard Normal values drawn by alliance simulations. Simulations are split into blocks of
+ * iterations, each of which draws from its own stream, so that blocks can run on different threads. A stream must
+ * depend only on its arguments, so that simulations stay reproducible regardless of the number of threads.
+ */
+public interface SimulationSampler {
+
+    /**
+     * Creates the stream of values drawn by a block of iterations
+     *
+     * @param seed           Seed of the simulation
+     * @param random         Random stream split off the simulation's seeded generator for this block
+     * @param firstIteration Index of the block's first iteration within the simulation
+     * @param dimension      Number of values drawn in each iteration
+     * @return Stream of the block's values
+     */
+    BlockStream createBlockStream(long seed, SplittableRandom random, int firstIteration, int dimension);
+
+    /**
+     * Values drawn by the consecutive iterations of a block
+     */
+    interface BlockStream {
+
+        /**
+         * Fills an array with the standard Normal values of the next iteration
+         *
+         * @param values Array to fill, with one element for each dimension
+         */
+        void nextStandardNormals(double[] values);
+    }
+}
@@ -0,0 +1,159 @@
+package org.usfirst.frc.team25.scouting.data;
+
+/**
+ * Settings of the Monte Carlo simulations of alliance reports. In adaptive mode, matches are simulated in batches
+ * until the standard errors of the tele-op points standard deviation, relative to that deviation, and of the rocket
+ * ranking point chance fall below their tolerances, within the iteration bounds. Otherwise, a fixed number of
+ * matches is simulated.
+ */
+public class SimulationSettings {
+
+    /**
+     * Number of matches simulated when adaptive mode is off
+     */
+    public static final int DEFAULT_ITERATIONS = 1000;
+
+    /**
+     * Default tolerances, met after about 1000 to 2000 iterations. The standard deviation's tolerance is a fraction of
+     * the deviation, so alliances of any variability need about as many iterations to meet it.
+     */
+    public static final double DEFAULT_STD_DEV_TOLERANCE = 0.015;
+    public static final double DEFAULT_PROBABILITY_TOLERANCE = 0.015;
+
+    public static final int DEFAULT_MIN_ITERATIONS = 500;
+    public static final int DEFAULT_MAX_ITERATIONS = 10000;
+
+    private long seed;
+    private SimulationSampler sampler;
+    private boolean adaptive;
+    private int numIterations;
+    private double stdDevTolerance;
+    private double probabilityTolerance;
+    private int minIterations;
+    private int maxIterations;
+
+    /**
+     * Constructs settings for adaptive simulations with the default seed, tolerances, and iteration bounds
+     */
+    public SimulationSettings() {
+        seed = AllianceSimulation.DEFAULT_SEED;
+        sampler = new PseudoRandomSampler();
+        adaptive = true;
+        numIterations = DEFAULT_ITERATIONS;
+        stdDevTolerance = DEFAULT_STD_DEV_TOLERANCE;
+        probabilityTolerance = DEFAULT_PROBABILITY_TOLERANCE;
+        minIterations = DEFAULT_MIN_ITERATIONS;
+        maxIterations = DEFAULT_MAX_ITERATIONS;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the simulations. Simulations with the same seed and settings give the same results, regardless
+     * of the number of threads.
+     *
+     * @param seed Seed of the random streams
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public SimulationSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Sets the source of the Normal values drawn by the simulations
+     *
+     * @param sampler Sampler of the simulations, such as <code>PseudoRandomSampler</code> or the quasi-random
+     *                <code>HaltonSampler</code>
+     */
+    public void setSampler(SimulationSampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("Sampler must not be null");
+        }
+        this.sampler = sampler;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public int getNumIterations() {
+        return numIterations;
+    }
+
+    /**
+     * Sets the number of matches simulated when adaptive mode is off
+     *
+     * @param numIterations Number of matches, at least 2
+     */
+    public void setNumIterations(int numIterations) {
+        if (numIterations < 2) {
+            throw new IllegalArgumentException("At least 2 iterations are required");
+        }
+        this.numIterations = numIterations;
+    }
+
+    public double getStdDevTolerance() {
+        return stdDevTolerance;
+    }
+
+    /**
+     * Sets the largest acceptable standard error of the simulated standard deviation of tele-op points, relative to
+     * that standard deviation
+     *
+     * @param stdDevTolerance Tolerance as a fraction of the standard deviation (e.g. 0.015 for 1.5%), greater than 0
+     */
+    public void setStdDevTolerance(double stdDevTolerance) {
+        if (!(stdDevTolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be greater than 0");
+        }
+        this.stdDevTolerance = stdDevTolerance;
+    }
+
+    public double getProbabilityTolerance() {
+        return probabilityTolerance;
+    }
+
+    /**
+     * Sets the largest acceptable standard error of the simulated chance of the rocket ranking point
+     *
+     * @param probabilityTolerance Tolerance from 0 to 1, greater than 0
+     */
+    public void setProbabilityTolerance(double probabilityTolerance) {
+        if (!(probabilityTolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be greater than 0");
+        }
+        this.probabilityTolerance = probabilityTolerance;
+    }
+
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets the bounds of the number of matches simulated in adaptive mode
+     *
+     * @param minIterations Number of matches simulated before checking the standard errors, at least 2
+     * @param maxIterations Number of matches after which simulation stops even if the tolerances are not met, at
+     *                      least <code>minIterations</code>
+     */
+    public void setIterationBounds(int minIterations, int maxIterations) {
+        if (minIterations < 2 || maxIterations < minIterations) {
+            throw new IllegalArgumentException("Iteration bounds must satisfy 2 <= min <= max");
+        }
+        this.minIterations = minIterations;
+        this.maxIterations = maxIterations;
+    }
+}
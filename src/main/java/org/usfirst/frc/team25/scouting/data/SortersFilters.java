@@ -5,10 +5,7 @@ import com.thebluealliance.api.v3.models.Match;
 import com.thebluealliance.api.v3.models.SimpleMatch;
 import com.thebluealliance.api.v3.models.SimpleTeam;
 import com.thebluealliance.api.v3.models.Team;
-import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -117,93 +114,4 @@ public class SortersFilters {
         }
         return matches;
     }
-
-    /**
-     * Extracts a particular data object model from an array of scout entries
-     *
-     * @param scoutEntries ArrayList of all scout entries from an event to filter
-     * @param objectClass  Class reference to the desired data object model to filter (e.g. TeleOp.class)
-     * @return ArrayList of the desired data object from all entries
-     */
-    public static ArrayList<Object> filterDataObject(ArrayList<ScoutEntry> scoutEntries, Class objectClass) {
-        ArrayList<Object> filteredList = new ArrayList<>();
-
-        Method correctGetter = null;
-
-        for (Method m : ScoutEntry.class.getMethods()) {
-            if (m.getName().substring(3).toLowerCase().equals(objectClass.getSimpleName().toLowerCase()) && m.getParameterTypes().length == 0) {
-                correctGetter = m;
-                break;
-            }
-        }
-
-        try {
-            if (correctGetter != null) {
-                for (ScoutEntry entry : scoutEntries) {
-                    filteredList.add(correctGetter.invoke(entry));
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return filteredList;
-    }
-
-    /**
-     * Extracts the method object associated with the getter for a particular metric
-     *
-     * @param dataObjectClass Data object model class containing the desired getter method
-     * @param metricName      String name of the metric to be queried, in camel case
-     * @param shiftIndex      Number of letters in the prefix of the IntelliJ auto-generated getter name (i.e. 2 for
-     *                        "is" and 3 for "get")
-     * @return The desired method object, null if the class does not contain the getter
-     */
-    public static Method getCorrectGetter(Class dataObjectClass, String metricName, int shiftIndex) {
-        Method correctGetter = null;
-
-        for (Method m : dataObjectClass.getMethods()) {
-            if (m.getName().substring(shiftIndex).equalsIgnoreCase(metricName) && m.getParameterTypes().length == 0) {
-                correctGetter = m;
-                break;
-            }
-        }
-        return correctGetter;
-    }
-
-    /**
-     * Retrieves the set of values associated with a particular metric in a data object
-     *
-     * @param dataset    ArrayList of data objects containing the desired metric
-     * @param metricName The name of the metric
-     * @param metricType Class type of the metric (e.g. boolean, int, double)
-     * @return A double array of values for that metric from <code>dataset</code>
-     */
-    public static double[] getDoubleArray(ArrayList<Object> dataset, String metricName, Class metricType) {
-        double[] resultArray = new double[dataset.size()];
-
-        int shiftIndex = 3;
-
-        if (metricType.equals(boolean.class)) {
-            shiftIndex = 2;
-        }
-
-        Method correctMethod = getCorrectGetter(dataset.get(0).getClass(), metricName, shiftIndex);
-
-        for (int i = 0; i < dataset.size(); i++) {
-            try {
-                if (metricType.equals(boolean.class)) {
-                    resultArray[i] = (boolean) correctMethod.invoke(dataset.get(i)) ? 1.0 : 0.0;
-                } else if (metricType.equals(int.class)) {
-                    resultArray[i] = ((Integer) correctMethod.invoke(dataset.get(i))).doubleValue();
-                } else if (metricType.equals(double.class)) {
-                    resultArray[i] = (Double) correctMethod.invoke(dataset.get(i));
-                }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
-            }
-        }
-
-        return resultArray;
-    }
 }
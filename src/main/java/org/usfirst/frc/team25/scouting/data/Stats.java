@@ -4,7 +4,6 @@ import org.apache.commons.math3.distribution.TDistribution;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Random;
 
 /**
  * Collection of static methods to perform statistical computations and operations
@@ -127,15 +126,39 @@ public class Stats {
     }
 
     /**
-     * Generates a pseudorandom value from the specified Normal probability distribution
+     * Calculates the inverse of the standard Normal cumulative distribution function with Acklam's rational
+     * approximation, which has a relative error below 1.15e-9
      *
-     * @param mean              Center of the probability distribution
-     * @param standardDeviation Standard deviation of the distribution
-     * @return A random value along a Normal probability distribution with the given parameters
+     * @param probability Cumulative probability, between 0.0 and 1.0
+     * @return The z-score with the given area to its left, infinite if <code>probability</code> is 0.0 or 1.0
      */
-    public static double randomNormalValue(double mean, double standardDeviation) {
-        Random r = new Random();
-        return Math.max(r.nextGaussian() * standardDeviation + mean, 0);
+    public static double inverseStandardNormal(double probability) {
+        if (probability <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (probability >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        final double lowerRegion = 0.02425;
+
+        if (probability < lowerRegion || probability > 1 - lowerRegion) {
+            // Rational approximation for the tails, which are symmetric
+            double q = Math.sqrt(-2 * Math.log(Math.min(probability, 1 - probability)));
+            double z = (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00) /
+                    ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                            + 3.754408661907416e+00) * q + 1);
+            return probability < lowerRegion ? z : -z;
+        }
+
+        // Rational approximation for the central region
+        double q = probability - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q /
+                (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                        + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
     }
 
     /**
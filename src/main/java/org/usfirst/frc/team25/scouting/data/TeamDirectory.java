@@ -0,0 +1,227 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Names and other metadata of the teams at an event, parsed once from the team list downloaded from The Blue
+ * Alliance. Shared by all team and alliance reports, so the team list is not read and scanned again for every team.
+ */
+public class TeamDirectory {
+
+    /**
+     * Parsed team lists, keyed by absolute path
+     */
+    private static final HashMap<File, TeamDirectory> directories = new HashMap<>();
+
+    /**
+     * Number of fields in a team list line that has metadata following the nickname
+     * (number, nickname, rookie year, city, state/province, country)
+     */
+    private static final int METADATA_FIELD_COUNT = 6;
+
+    private final HashMap<Integer, TeamInfo> teams;
+
+    /**
+     * Last modified time and length of the team list when it was parsed, used to detect a new download
+     */
+    private final long lastModified, length;
+
+    /**
+     * Creates an empty team directory
+     */
+    public TeamDirectory() {
+        teams = new HashMap<>();
+        lastModified = 0;
+        length = 0;
+    }
+
+    /**
+     * Parses a team list file
+     *
+     * @param teamNameList Team list file generated by <code>BlueAlliance.exportTeamList</code>
+     */
+    private TeamDirectory(File teamNameList) {
+        teams = new HashMap<>();
+        lastModified = teamNameList.lastModified();
+        length = teamNameList.length();
+
+        for (String line : FileManager.getFileString(teamNameList).split("\n")) {
+            TeamInfo info = parseLine(line.trim());
+            if (info != null) {
+                teams.put(info.getTeamNum(), info);
+            }
+        }
+    }
+
+    /**
+     * Gets the team directory of a team list file, parsing the file only if it has not been parsed since it was last
+     * changed
+     *
+     * @param teamNameList Team list file generated by <code>BlueAlliance.exportTeamList</code>
+     * @return Team directory containing the teams in the list
+     */
+    public static synchronized TeamDirectory forFile(File teamNameList) {
+        File key = teamNameList.getAbsoluteFile();
+        TeamDirectory directory = directories.get(key);
+
+        if (directory == null || directory.lastModified != key.lastModified() || directory.length != key.length()) {
+            directory = new TeamDirectory(key);
+            directories.put(key, directory);
+        }
+
+        return directory;
+    }
+
+    /**
+     * Parses a line of the team list. Lines contain the team number and nickname, optionally followed by the rookie
+     * year, city, state/province, and country of the team.
+     *
+     * @param line Line of the team list, without the line break
+     * @return Metadata of the team on the line, <code>null</code> if the line is not a valid team
+     */
+    private static TeamInfo parseLine(String line) {
+        if (line.endsWith(",")) {
+            line = line.substring(0, line.length() - 1);
+        }
+
+        String[] values = line.split(",", -1);
+        if (values.length < 2) {
+            return null;
+        }
+
+        int teamNum;
+        try {
+            teamNum = Integer.parseInt(values[0].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        int nicknameEnd = values.length;
+        int rookieYear = 0;
+        String city = "", stateProv = "", country = "";
+
+        if (values.length >= METADATA_FIELD_COUNT) {
+            try {
+                rookieYear = Integer.parseInt(values[values.length - 4].trim());
+                city = values[values.length - 3];
+                stateProv = values[values.length - 2];
+                country = values[values.length - 1];
+                nicknameEnd = values.length - 4;
+            } catch (NumberFormatException e) {
+                // No metadata, so the remaining commas are part of the nickname
+            }
+        }
+
+        // Nicknames may contain commas
+        StringBuilder nickname = new StringBuilder(values[1]);
+        for (int i = 2; i < nicknameEnd; i++) {
+            nickname.append(",").append(values[i]);
+        }
+
+        return new TeamInfo(teamNum, nickname.toString(), rookieYear, city, stateProv, country);
+    }
+
+    /**
+     * Retrieves the metadata of a team
+     *
+     * @param teamNum Team number
+     * @return Metadata of the team, <code>null</code> if the team is not in the directory
+     */
+    public TeamInfo get(int teamNum) {
+        return teams.get(teamNum);
+    }
+
+    /**
+     * Retrieves the nickname of a team
+     *
+     * @param teamNum Team number
+     * @return Nickname of the team, an empty string if the team is not in the directory
+     */
+    public String getTeamName(int teamNum) {
+        TeamInfo info = teams.get(teamNum);
+        return info == null ? "" : info.getNickname();
+    }
+
+    public boolean contains(int teamNum) {
+        return teams.containsKey(teamNum);
+    }
+
+    /**
+     * Gets the numbers of all teams in the directory
+     *
+     * @return New ArrayList of team numbers, in ascending order
+     */
+    public ArrayList<Integer> getTeamNums() {
+        ArrayList<Integer> teamNums = new ArrayList<>(teams.keySet());
+        Collections.sort(teamNums);
+        return teamNums;
+    }
+
+    public int size() {
+        return teams.size();
+    }
+
+    /**
+     * Metadata of a single team. Fields not in the team list are 0 or empty.
+     */
+    public static class TeamInfo {
+
+        private final int teamNum, rookieYear;
+        private final String nickname, city, stateProv, country;
+
+        public TeamInfo(int teamNum, String nickname, int rookieYear, String city, String stateProv,
+                        String country) {
+            this.teamNum = teamNum;
+            this.nickname = nickname;
+            this.rookieYear = rookieYear;
+            this.city = city;
+            this.stateProv = stateProv;
+            this.country = country;
+        }
+
+        public int getTeamNum() {
+            return teamNum;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public int getRookieYear() {
+            return rookieYear;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public String getStateProv() {
+            return stateProv;
+        }
+
+        public String getCountry() {
+            return country;
+        }
+
+        /**
+         * Formats the location of the team
+         *
+         * @return City, state/province, and country of the team, separated by commas and omitting unknown fields
+         */
+        public String getLocation() {
+            StringBuilder location = new StringBuilder();
+            for (String part : new String[]{city, stateProv, country}) {
+                if (!part.isEmpty()) {
+                    if (location.length() > 0) {
+                        location.append(", ");
+                    }
+                    location.append(part);
+                }
+            }
+            return location.toString();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.usfirst.frc.team25.scouting.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Interned integer IDs of the metrics calculated in team reports (averages, counts, attempt-success rates, etc.).
+ * Each metric name is assigned an ID once, so team reports can store their values in arrays indexed by ID, and
+ * alliance calculations can look them up without building and hashing metric name strings.
+ */
+public class TeamMetricIds {
+
+    private static final HashMap<String, Integer> ids = new HashMap<>();
+    private static final ArrayList<String> names = new ArrayList<>();
+
+    /**
+     * IDs of the averaged metrics, in the same order as <code>TeamReport.autoMetricNames</code>,
+     * <code>TeamReport.teleMetricNames</code>, and <code>TeamReport.overallMetricNames</code>
+     */
+    public static final int[] AUTO_AVERAGES = register("auto", TeamReport.autoMetricNames, "");
+    public static final int[] TELE_AVERAGES = register("tele", TeamReport.teleMetricNames, "");
+    public static final int[] OVERALL_AVERAGES = register("", TeamReport.overallMetricNames, "");
+
+    /**
+     * IDs of the HAB metrics of each level, in the same order as <code>TeamReport.levelPrefixes</code>
+     */
+    public static final int[] STARTS = register("", TeamReport.levelPrefixes, "Start");
+    public static final int[] CROSSES = register("", TeamReport.levelPrefixes, "Cross");
+    public static final int[] CLIMB_ATTEMPTS = register("", TeamReport.levelPrefixes, "ClimbAttempt");
+    public static final int[] CLIMB_SUCCESSES = register("", TeamReport.levelPrefixes, "ClimbSuccess");
+    public static final int[] CLIMBS = register("", TeamReport.levelPrefixes, "Climb");
+
+    // Sandstorm game piece counts and rates
+    public static final int CARGO_START = register("cargoStart");
+    public static final int CARGO_AUTO_SUCCESS = register("cargoAutoSuccess");
+    public static final int HATCH_START = register("hatchStart");
+    public static final int HATCH_AUTO_SUCCESS = register("hatchAutoSuccess");
+
+    public static final int NO_SHOW = register("noShow");
+    public static final int DYSFUNCTIONAL = register("dysfunctional");
+
+    // Abilities
+    public static final int CARGO_FLOOR_INTAKE = register("cargoFloorIntake");
+    public static final int HATCH_PANEL_FLOOR_INTAKE = register("hatchPanelFloorIntake");
+    public static final int FRONT_CARGO_SHIP_HATCH_SANDSTORM = register("frontCargoShipHatchSandstorm");
+    public static final int SIDE_CARGO_SHIP_HATCH_SANDSTORM = register("sideCargoShipHatchSandstorm");
+    public static final int ROCKET_HATCH_SANDSTORM = register("rocketHatchSandstorm");
+    public static final int CARGO_SHIP_CARGO_SANDSTORM = register("cargoShipCargoSandstorm");
+    public static final int ROCKET_CARGO_SANDSTORM = register("rocketCargoSandstorm");
+    public static final int SINGLE_BUDDY_CLIMB = register("singleBuddyClimb");
+    public static final int DOUBLE_BUDDY_CLIMB = register("doubleBuddyClimb");
+    public static final int LEVEL_TWO_BUDDY_CLIMB = register("levelTwoBuddyClimb");
+    public static final int LEVEL_THREE_BUDDY_CLIMB = register("levelThreeBuddyClimb");
+
+    /**
+     * IDs of the abilities shown in individual scout entries. Team reports also count the entries showing each of
+     * these, so an ability can be found again when an entry is removed.
+     */
+    public static final int[] ENTRY_ABILITIES = new int[]{FRONT_CARGO_SHIP_HATCH_SANDSTORM,
+            SIDE_CARGO_SHIP_HATCH_SANDSTORM, ROCKET_HATCH_SANDSTORM, CARGO_SHIP_CARGO_SANDSTORM, ROCKET_CARGO_SANDSTORM,
+            SINGLE_BUDDY_CLIMB, DOUBLE_BUDDY_CLIMB, LEVEL_TWO_BUDDY_CLIMB, LEVEL_THREE_BUDDY_CLIMB};
+
+    /**
+     * Assigns an ID to a metric name, or retrieves its ID if it already has one
+     *
+     * @param metric Name of the metric
+     * @return ID of the metric
+     */
+    private static int register(String metric) {
+        Integer id = ids.get(metric);
+        if (id == null) {
+            id = names.size();
+            ids.put(metric, id);
+            names.add(metric);
+        }
+        return id;
+    }
+
+    /**
+     * Assigns IDs to a set of metric names formed by adding a prefix and suffix to each base name
+     *
+     * @param prefix    String added before each base name
+     * @param baseNames Base metric names
+     * @param suffix    String added after each base name
+     * @return IDs of the metrics, in the same order as <code>baseNames</code>
+     */
+    private static int[] register(String prefix, String[] baseNames, String suffix) {
+        int[] metricIds = new int[baseNames.length];
+        for (int i = 0; i < baseNames.length; i++) {
+            metricIds[i] = register(prefix + baseNames[i] + suffix);
+        }
+        return metricIds;
+    }
+
+    /**
+     * Retrieves the ID of a metric
+     *
+     * @param metric Name of the metric (e.g. <code>levelOneCross</code>)
+     * @return ID of the metric, -1 if the metric name does not exist
+     */
+    public static int getId(String metric) {
+        Integer id = ids.get(metric);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retrieves the name of a metric
+     *
+     * @param id ID of the metric
+     * @return Name of the metric
+     */
+    public static String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Gets the number of metric IDs, which is the size of arrays indexed by ID
+     *
+     * @return Number of metrics with IDs
+     */
+    public static int size() {
+        return names.size();
+    }
+}
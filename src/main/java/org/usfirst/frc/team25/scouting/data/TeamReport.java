@@ -4,9 +4,11 @@ import org.usfirst.frc.team25.scouting.data.models.Autonomous;
 import org.usfirst.frc.team25.scouting.data.models.ScoutEntry;
 import org.usfirst.frc.team25.scouting.data.models.TeleOp;
 
-import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.function.BiFunction;
 
 
 /**
@@ -15,26 +17,55 @@ import java.util.HashMap;
  */
 public class TeamReport {
 
+    /**
+     * Scout entries in which the robot showed up
+     */
     private final transient ArrayList<ScoutEntry> entries;
+
+    /**
+     * Numeric and boolean metrics of the entries in which the robot showed up, extracted as they are added
+     */
+    private final transient MetricColumnStore metricColumns;
+
+    /**
+     * IDs of the counts and quick comments counted for each entry, including no shows, so that they can be
+     * decremented if the entry is removed. Entries are compared by reference.
+     */
+    private final transient IdentityHashMap<ScoutEntry, CountedEntry> countedEntries;
+
+    /**
+     * Number of entries selecting each quick comment, indexed by the comment's bit in the event's
+     * <code>QuickCommentDictionary</code>
+     */
+    private final transient int[] quickCommentCounts;
+    private final transient QuickCommentDictionary quickCommentDictionary;
+
+    /**
+     * False if entries were added or removed since the averages, rates, abilities, comments, and best climb level
+     * were calculated
+     */
+    private transient boolean derivedValuesValid;
+    private int bestClimbLevel;
     private final int teamNum;
 
     // Metric names defined to assist with iterating over values
     public final static String[] autoMetricNames = new String[]{"cargoShipHatches", "rocketHatches", "cargoShipCargo",
             "rocketCargo"};
     public final static String[] levelPrefixes = new String[]{"levelOne", "levelTwo", "levelThree", "total"};
-    // HashMaps containing metric name and value pairings
-    private final HashMap<String, Double> averages;
+    // Arrays containing metric values, indexed by TeamMetricIds
+    private final double[] averages;
     public final static String[] teleMetricNames = new String[]{"cargoShipHatches", "rocketLevelOneHatches",
             "rocketLevelTwoHatches", "rocketLevelThreeHatches", "cargoShipCargo", "rocketLevelOneCargo",
             "rocketLevelTwoCargo", "rocketLevelThreeCargo", "numPartnerClimbAssists"};
     public final static String[] overallMetricNames = new String[]{"calculatedPointContribution",
             "calculatedSandstormPoints", "calculatedTeleOpPoints", "totalHatches", "totalCargo"};
     private String teamName, frequentCommentStr, allComments;
+    private TeamDirectory.TeamInfo teamInfo;
     private ArrayList<String> frequentComments;
-    private final HashMap<String, Double> standardDeviations;
-    private final HashMap<String, Double> attemptSuccessRates;
-    private final HashMap<String, Integer> counts;
-    private final HashMap<String, Boolean> abilities;
+    private final double[] standardDeviations;
+    private final double[] attemptSuccessRates;
+    private final int[] counts;
+    private final boolean[] abilities;
 
     /**
      * An copy constructor that creates an empty TeamReport based on the metrics calculated in the model team report
@@ -43,112 +74,84 @@ public class TeamReport {
      * @param model A team report with calculations performed on a real set of scouting entries
      */
     public TeamReport(TeamReport model) {
-        this(0);
-
-        for (String key : model.averages.keySet()) {
-            averages.put(key, 0.0);
-        }
-
-        for (String key : model.standardDeviations.keySet()) {
-            standardDeviations.put(key, 0.0);
-        }
-
-        for (String key : model.attemptSuccessRates.keySet()) {
-            attemptSuccessRates.put(key, 0.0);
-        }
-
-        for (String key : model.counts.keySet()) {
-            counts.put(key, 0);
-        }
-
-        for (String key : model.abilities.keySet()) {
-            abilities.put(key, false);
-        }
+        // Every metric of a new team report is already zero or false
+        this(0, model.quickCommentDictionary);
     }
 
     /**
      * Constructs a new team report, with empty calculated statistics
      *
-     * @param teamNum Team number of the team that is being reported
+     * @param teamNum                Team number of the team that is being reported
+     * @param quickCommentDictionary Dictionary that encoded the quick comments of the event's entries
      */
-    public TeamReport(int teamNum) {
+    public TeamReport(int teamNum, QuickCommentDictionary quickCommentDictionary) {
         this.teamNum = teamNum;
+        this.quickCommentDictionary = quickCommentDictionary;
         entries = new ArrayList<>();
+        metricColumns = new MetricColumnStore();
+        countedEntries = new IdentityHashMap<>();
+        quickCommentCounts = new int[Long.SIZE];
         teamName = "";
         frequentCommentStr = "";
 
-        averages = new HashMap<>();
-        standardDeviations = new HashMap<>();
-        counts = new HashMap<>();
-        attemptSuccessRates = new HashMap<>();
-        abilities = new HashMap<>();
+        averages = new double[TeamMetricIds.size()];
+        standardDeviations = new double[TeamMetricIds.size()];
+        counts = new int[TeamMetricIds.size()];
+        attemptSuccessRates = new double[TeamMetricIds.size()];
+        abilities = new boolean[TeamMetricIds.size()];
         frequentComments = new ArrayList<>();
     }
 
     /**
-     * Processes the scout entries within the team report by filtering out no shows, calculating stats, and finding
-     * abilities and frequent comments
+     * Processes the scout entries within the team report by calculating stats, and finding abilities and frequent
+     * comments, if entries changed since they were last calculated. Metrics and counts of each entry are aggregated
+     * as it is added or removed, so this does not make another pass over the entries to calculate stats.
+     * Getters of calculated values call this automatically.
      */
     public void processReport() {
-        filterNoShow();
+        if (derivedValuesValid) {
+            return;
+        }
+
         findFrequentComments();
         calculateStats();
         findAbilities();
-    }
-
-    /**
-     * Removes scouting entries where the robot did not show up and increments the "no show" and "dysfunctional" counts
-     */
-    private void filterNoShow() {
-        for (int i = 0; i < entries.size(); i++) {
-            if (entries.get(i).getPreMatch().isRobotNoShow()) {
-                entries.remove(i);
+        bestClimbLevel = calculateBestClimbLevel();
 
-                // Decrement counter to prevent skipping over entries
-                i--;
-                incrementCount("noShow");
-                incrementCount("dysfunctional");
-            }
-        }
+        derivedValuesValid = true;
     }
 
     /**
-     * Increments a count metric by 1 and creates it if it currently does not exist
+     * Retrieves the value of the specified count metric
      *
-     * @param metricName The count metric to increment
+     * @param metric String name of the desired metric
+     * @return The value of the count metric, 0 if the metric name does not exist
      */
-    private void incrementCount(String metricName) {
-        if (counts.containsKey(metricName)) {
-            counts.put(metricName, getCount(metricName) + 1);
-        } else {
-            counts.put(metricName, 1);
+    public int getCount(String metric) {
+        int id = TeamMetricIds.getId(metric);
+        if (id == -1) {
+            return 0;
         }
+        return counts[id];
     }
 
     /**
      * Retrieves the value of the specified count metric
      *
-     * @param metric String name of the desired metric
-     * @return The value of the count metric, 0 if the metric name does not exist
+     * @param id ID of the desired metric, from <code>TeamMetricIds</code>
+     * @return The value of the count metric
      */
-    public int getCount(String metric) {
-        if (!counts.containsKey(metric)) {
-            return 0;
-        }
-        return counts.get(metric);
+    public int getCount(int id) {
+        return counts[id];
     }
 
     /**
-     * Calculates the counts, averages, standard deviations, and attempt-success rates of data in stored scouting
-     * entries, provided that data exists
+     * Calculates the averages, standard deviations, and attempt-success rates of data in stored scouting entries from
+     * their aggregated metrics and counts
      */
     private void calculateStats() {
-        if (entries.size() > 0) {
-            calculateCounts();
-            calculateAverages();
-            calculateStandardDeviations();
-            calculateAttemptSuccessRates();
-        }
+        calculateAveragesAndStandardDeviations();
+        calculateAttemptSuccessRates();
     }
 
     /**
@@ -157,29 +160,23 @@ public class TeamReport {
      * Also concatenates all custom comments made into the <code>allComments</code> string
      */
     private void findFrequentComments() {
-        HashMap<String, Integer> commentFrequencies = new HashMap<>();
+        frequentComments = new ArrayList<>();
+        frequentCommentStr = "";
+
+        // Quick comment counts are aggregated as entries are added, so only the comments are visited here
         if (entries.size() > 0) {
             for (String key : entries.get(0).getPostMatch().getRobotQuickCommentSelections().keySet()) {
-
-                commentFrequencies.put(key, 0);
-
-                for (ScoutEntry entry : entries) {
-                    if (entry.getPostMatch().getRobotQuickCommentSelections().get(key)) {
-                        commentFrequencies.put(key, commentFrequencies.get(key) + 1);
-                    }
+                if (countQuickComment(key) >= entries.size() / 4.0) {
+                    frequentComments.add(key);
                 }
             }
         }
 
-        for (String key : commentFrequencies.keySet()) {
-            if (commentFrequencies.get(key) >= entries.size() / 4.0) {
-                frequentComments.add(key);
-            }
-        }
-
+        StringBuilder frequentCommentBuilder = new StringBuilder();
         for (String comment : frequentComments) {
-            frequentCommentStr += StringProcessing.removeCommasBreaks(comment) + " \n";
+            frequentCommentBuilder.append(StringProcessing.removeCommasBreaks(comment)).append(" \n");
         }
+        frequentCommentStr = frequentCommentBuilder.toString();
 
         allComments = "";
         for (ScoutEntry entry : entries) {
@@ -190,146 +187,127 @@ public class TeamReport {
     }
 
     /**
-     * Calculates the averages of metrics specified in <code>autoMetricNames</code> and  <code>teleMetricNames</code>
+     * Retrieves the averages and sample standard deviations of metrics specified in <code>autoMetricNames</code>,
+     * <code>teleMetricNames</code>, and <code>overallMetricNames</code> from the aggregated metric columns
      */
-    private void calculateAverages() {
-        ArrayList<Object> autoList = SortersFilters.filterDataObject(entries, Autonomous.class);
-        ArrayList<Object> teleList = SortersFilters.filterDataObject(entries, TeleOp.class);
-        ArrayList<Object> overallList = new ArrayList<>(entries);
-
-        for (String metric : autoMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(autoList, metric, int.class);
-            averages.put("auto" + metric, Stats.mean(values));
-        }
-        for (String metric : teleMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(teleList, metric, int.class);
-            averages.put("tele" + metric, Stats.mean(values));
-        }
-        for (String metric : overallMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(overallList, metric, int.class);
-            averages.put(metric, Stats.mean(values));
+    private void calculateAveragesAndStandardDeviations() {
+        String[][] metricSets = new String[][]{autoMetricNames, teleMetricNames, overallMetricNames};
+        int[][] metricIdSets = new int[][]{TeamMetricIds.AUTO_AVERAGES, TeamMetricIds.TELE_AVERAGES,
+                TeamMetricIds.OVERALL_AVERAGES};
+        Class<?>[] modelClasses = new Class<?>[]{Autonomous.class, TeleOp.class, ScoutEntry.class};
+
+        for (int i = 0; i < metricSets.length; i++) {
+            for (int j = 0; j < metricSets[i].length; j++) {
+                averages[metricIdSets[i][j]] = metricColumns.getMean(modelClasses[i], metricSets[i][j]);
+                standardDeviations[metricIdSets[i][j]] = metricColumns.getStandardDeviation(modelClasses[i],
+                        metricSets[i][j]);
+            }
         }
     }
 
     /**
      * Determines if teams are capable of intaking game pieces from the floor and their potential sandstorm and climb
-     * modes
+     * modes, which are abilities shown in at least one entry
      */
     private void findAbilities() {
-        abilities.put("cargoFloorIntake", frequentComments.contains("Cargo floor intake"));
-        abilities.put("hatchPanelFloorIntake", frequentComments.contains("Hatch panel floor intake"));
+        abilities[TeamMetricIds.CARGO_FLOOR_INTAKE] = frequentComments.contains("Cargo floor intake");
+        abilities[TeamMetricIds.HATCH_PANEL_FLOOR_INTAKE] = frequentComments.contains("Hatch panel floor intake");
 
-        for (ScoutEntry entry : entries) {
-            if (entry.getAutonomous().isFrontCargoShipHatchCapable()) {
-                abilities.put("frontCargoShipHatchSandstorm", true);
-            }
-            if (entry.getAutonomous().isSideCargoShipHatchCapable()) {
-                abilities.put("sideCargoShipHatchSandstorm", true);
-            }
-            if (entry.getAutonomous().getRocketHatches() >= 1) {
-                abilities.put("rocketHatchSandstorm", true);
-            }
-            if (entry.getAutonomous().getCargoShipCargo() >= 1) {
-                abilities.put("cargoShipCargoSandstorm", true);
-            }
-            if (entry.getAutonomous().getRocketCargo() >= 1) {
-                abilities.put("rocketCargoSandstorm", true);
-            }
-            if (entry.getTeleOp().getNumPartnerClimbAssists() == 1) {
-                abilities.put("singleBuddyClimb", true);
-            }
-            if (entry.getTeleOp().getNumPartnerClimbAssists() == 2) {
-                abilities.put("doubleBuddyClimb", true);
-            }
-            if (entry.getTeleOp().getPartnerClimbAssistEndLevel() == 2) {
-                abilities.put("levelTwoBuddyClimb", true);
-            }
-            if (entry.getTeleOp().getPartnerClimbAssistEndLevel() == 3) {
-                abilities.put("levelThreeBuddyClimb", true);
-            }
+        for (int id : TeamMetricIds.ENTRY_ABILITIES) {
+            abilities[id] = counts[id] > 0;
         }
     }
 
     /**
-     * Calculates the number of times a team starts/crosses a particular level of the HAB during the sandstorm period
-     * and the number of HAB climb attempts/successes
+     * Finds the counts that an entry increments: the HAB level a team starts from/crosses during the sandstorm
+     * period, its HAB climb attempt/success, and the potential sandstorm and climb modes it shows
+     *
+     * @param entry Scout entry to count
+     * @return IDs of the counts incremented by the entry. An ID may appear more than once.
      */
-    private void calculateCounts() {
-
-        for (ScoutEntry entry : entries) {
+    private static int[] findCountedIds(ScoutEntry entry) {
+        if (entry.getPreMatch().isRobotNoShow()) {
+            return new int[]{TeamMetricIds.NO_SHOW, TeamMetricIds.DYSFUNCTIONAL};
+        }
 
-            incrementCount(levelPrefixes[entry.getPreMatch().getStartingLevel() - 1] + "Start");
+        int[] ids = new int[32];
+        int numIds = 0;
 
-            if (entry.getPreMatch().getStartingGamePiece().equals("Cargo")) {
-                incrementCount("cargoStart");
-                if (entry.getSandstormCargo() >= 1) {
-                    incrementCount("cargoAutoSuccess");
-                }
-            }
+        ids[numIds++] = TeamMetricIds.STARTS[entry.getPreMatch().getStartingLevel() - 1];
 
-            if (entry.getPreMatch().getStartingGamePiece().equals("Hatch panel")) {
-                incrementCount("hatchStart");
-                if (entry.getSandstormHatches() >= 1) {
-                    incrementCount("hatchAutoSuccess");
-                }
+        if (entry.getPreMatch().getStartingGamePiece().equals("Cargo")) {
+            ids[numIds++] = TeamMetricIds.CARGO_START;
+            if (entry.getSandstormCargo() >= 1) {
+                ids[numIds++] = TeamMetricIds.CARGO_AUTO_SUCCESS;
             }
+        }
 
-            // Increase level one count if the robot crosses on either level 1 or 2
-            if (entry.getAutonomous().isCrossHabLine()) {
-                if (entry.getPreMatch().getStartingLevel() == 2) {
-                    incrementCount("levelOneCross");
-                    incrementCount("levelOneStart");
-                }
-                incrementCount(levelPrefixes[entry.getPreMatch().getStartingLevel() - 1] + "Cross");
-                incrementCount("totalCross");
+        if (entry.getPreMatch().getStartingGamePiece().equals("Hatch panel")) {
+            ids[numIds++] = TeamMetricIds.HATCH_START;
+            if (entry.getSandstormHatches() >= 1) {
+                ids[numIds++] = TeamMetricIds.HATCH_AUTO_SUCCESS;
             }
+        }
 
-            if (entry.getTeleOp().isAttemptHabClimb()) {
-                incrementCount(levelPrefixes[entry.getTeleOp().getAttemptHabClimbLevel() - 1] +
-                        "ClimbAttempt");
-                incrementCount("totalClimbAttempt");
+        // Increase level one count if the robot crosses on either level 1 or 2
+        if (entry.getAutonomous().isCrossHabLine()) {
+            if (entry.getPreMatch().getStartingLevel() == 2) {
+                ids[numIds++] = TeamMetricIds.CROSSES[0];
+                ids[numIds++] = TeamMetricIds.STARTS[0];
             }
+            ids[numIds++] = TeamMetricIds.CROSSES[entry.getPreMatch().getStartingLevel() - 1];
+            ids[numIds++] = TeamMetricIds.CROSSES[3];
+        }
 
-            if (entry.getTeleOp().isSuccessHabClimb()) {
-                incrementCount(levelPrefixes[entry.getTeleOp().getSuccessHabClimbLevel() - 1] +
-                        "ClimbSuccess");
+        if (entry.getTeleOp().isAttemptHabClimb()) {
+            ids[numIds++] = TeamMetricIds.CLIMB_ATTEMPTS[entry.getTeleOp().getAttemptHabClimbLevel() - 1];
+            ids[numIds++] = TeamMetricIds.CLIMB_ATTEMPTS[3];
+        }
 
-                // For cases in which a robot attempts level 3, but only manages to get level 2
-                if (entry.getTeleOp().getSuccessHabClimbLevel() != entry.getTeleOp().getAttemptHabClimbLevel()) {
-                    incrementCount(levelPrefixes[entry.getTeleOp().getSuccessHabClimbLevel() - 1] +
-                            "ClimbAttempt");
-                }
+        if (entry.getTeleOp().isSuccessHabClimb()) {
+            ids[numIds++] = TeamMetricIds.CLIMB_SUCCESSES[entry.getTeleOp().getSuccessHabClimbLevel() - 1];
 
-                incrementCount("totalClimbSuccess");
+            // For cases in which a robot attempts level 3, but only manages to get level 2
+            if (entry.getTeleOp().getSuccessHabClimbLevel() != entry.getTeleOp().getAttemptHabClimbLevel()) {
+                ids[numIds++] = TeamMetricIds.CLIMB_ATTEMPTS[entry.getTeleOp().getSuccessHabClimbLevel() - 1];
             }
 
-            if (entry.getPostMatch().getRobotQuickCommentSelections().get("Lost communications") || entry.getPostMatch().getRobotQuickCommentSelections().get("Tipped over")) {
-                incrementCount("dysfunctional");
-            }
+            ids[numIds++] = TeamMetricIds.CLIMB_SUCCESSES[3];
         }
-    }
 
-    /**
-     * Calculates the sample standard of metrics specified in <code>autoMetricNames</code> and
-     * <code>teleMetricNames</code>
-     */
-    private void calculateStandardDeviations() {
-        ArrayList<Object> autoList = SortersFilters.filterDataObject(entries, Autonomous.class);
-        ArrayList<Object> teleList = SortersFilters.filterDataObject(entries, TeleOp.class);
-        ArrayList<Object> overallList = new ArrayList<>(entries);
+        if ((entry.getPostMatch().getQuickCommentSelectedMask() & QuickCommentDictionary.DYSFUNCTIONAL_MASK) != 0) {
+            ids[numIds++] = TeamMetricIds.DYSFUNCTIONAL;
+        }
 
-        for (String metric : autoMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(autoList, metric, int.class);
-            standardDeviations.put("auto" + metric, Stats.standardDeviation(values));
+        if (entry.getAutonomous().isFrontCargoShipHatchCapable()) {
+            ids[numIds++] = TeamMetricIds.FRONT_CARGO_SHIP_HATCH_SANDSTORM;
+        }
+        if (entry.getAutonomous().isSideCargoShipHatchCapable()) {
+            ids[numIds++] = TeamMetricIds.SIDE_CARGO_SHIP_HATCH_SANDSTORM;
+        }
+        if (entry.getAutonomous().getRocketHatches() >= 1) {
+            ids[numIds++] = TeamMetricIds.ROCKET_HATCH_SANDSTORM;
+        }
+        if (entry.getAutonomous().getCargoShipCargo() >= 1) {
+            ids[numIds++] = TeamMetricIds.CARGO_SHIP_CARGO_SANDSTORM;
+        }
+        if (entry.getAutonomous().getRocketCargo() >= 1) {
+            ids[numIds++] = TeamMetricIds.ROCKET_CARGO_SANDSTORM;
+        }
+        if (entry.getTeleOp().getNumPartnerClimbAssists() == 1) {
+            ids[numIds++] = TeamMetricIds.SINGLE_BUDDY_CLIMB;
         }
-        for (String metric : teleMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(teleList, metric, int.class);
-            standardDeviations.put("tele" + metric, Stats.standardDeviation(values));
+        if (entry.getTeleOp().getNumPartnerClimbAssists() == 2) {
+            ids[numIds++] = TeamMetricIds.DOUBLE_BUDDY_CLIMB;
         }
-        for (String metric : overallMetricNames) {
-            double[] values = SortersFilters.getDoubleArray(overallList, metric, int.class);
-            standardDeviations.put(metric, Stats.standardDeviation(values));
+        if (entry.getTeleOp().getPartnerClimbAssistEndLevel() == 2) {
+            ids[numIds++] = TeamMetricIds.LEVEL_TWO_BUDDY_CLIMB;
         }
+        if (entry.getTeleOp().getPartnerClimbAssistEndLevel() == 3) {
+            ids[numIds++] = TeamMetricIds.LEVEL_THREE_BUDDY_CLIMB;
+        }
+
+        return Arrays.copyOf(ids, numIds);
     }
 
     /**
@@ -346,42 +324,47 @@ public class TeamReport {
 
                 if (i == 3 && entries.size() != 0) {
                     attempts = entries.size();
-                    crossRate = (double) getCount(levelPrefixes[i] + "Cross") / attempts;
-                } else if (getCount(levelPrefixes[i] + "Start") != 0) {
-                    attempts = getCount(levelPrefixes[i] + "Start");
-                    crossRate = (double) getCount(levelPrefixes[i] + "Cross") / attempts;
+                    crossRate = (double) counts[TeamMetricIds.CROSSES[i]] / attempts;
+                } else if (counts[TeamMetricIds.STARTS[i]] != 0) {
+                    attempts = counts[TeamMetricIds.STARTS[i]];
+                    crossRate = (double) counts[TeamMetricIds.CROSSES[i]] / attempts;
                 }
 
                 // Calculate the standard deviation of a sample proportion
-                standardDeviations.put(levelPrefixes[i] + "Cross", Stats.standardDeviation(attempts,
-                        getCount(levelPrefixes[i] + "Cross")));
+                standardDeviations[TeamMetricIds.CROSSES[i]] = Stats.standardDeviation(attempts,
+                        counts[TeamMetricIds.CROSSES[i]]);
 
-                attemptSuccessRates.put(levelPrefixes[i] + "Cross", crossRate);
+                attemptSuccessRates[TeamMetricIds.CROSSES[i]] = crossRate;
             }
 
+            int climbAttempts = counts[TeamMetricIds.CLIMB_ATTEMPTS[i]];
+            int climbSuccesses = counts[TeamMetricIds.CLIMB_SUCCESSES[i]];
+
             double climbRate = 0.0;
 
-            if (getCount(levelPrefixes[i] + "ClimbAttempt") != 0) {
-                climbRate = (double) getCount(levelPrefixes[i] + "ClimbSuccess") / getCount(levelPrefixes[i] +
-                        "ClimbAttempt");
+            if (climbAttempts != 0) {
+                climbRate = (double) climbSuccesses / climbAttempts;
             }
 
-            standardDeviations.put(levelPrefixes[i] + "Climb", Stats.standardDeviation(getCount(levelPrefixes[i] +
-                    "ClimbAttempt"), getCount(levelPrefixes[i] + "ClimbSuccess")));
-            attemptSuccessRates.put(levelPrefixes[i] + "Climb", climbRate);
+            standardDeviations[TeamMetricIds.CLIMBS[i]] = Stats.standardDeviation(climbAttempts, climbSuccesses);
+            attemptSuccessRates[TeamMetricIds.CLIMBS[i]] = climbRate;
         }
 
-        for (String prefix : new String[]{"cargo", "hatch"}) {
+        int[][] autoIds = new int[][]{{TeamMetricIds.CARGO_START, TeamMetricIds.CARGO_AUTO_SUCCESS},
+                {TeamMetricIds.HATCH_START, TeamMetricIds.HATCH_AUTO_SUCCESS}};
+
+        for (int[] ids : autoIds) {
+            int starts = counts[ids[0]];
+            int successes = counts[ids[1]];
 
             double placeRate = 0.0;
 
-            if (getCount(prefix + "Start") != 0) {
-                placeRate = (double) getCount(prefix + "AutoSuccess") / getCount(prefix + "Start");
+            if (starts != 0) {
+                placeRate = (double) successes / starts;
             }
 
-            standardDeviations.put(prefix + "AutoSuccess", Stats.standardDeviation(getCount(prefix + "Start"),
-                    getCount(prefix + "AutoSuccess")));
-            attemptSuccessRates.put(prefix + "AutoSuccess", placeRate);
+            standardDeviations[ids[1]] = Stats.standardDeviation(starts, successes);
+            attemptSuccessRates[ids[1]] = placeRate;
         }
     }
 
@@ -393,13 +376,18 @@ public class TeamReport {
      * @return The HAB climb level that yields the greatest expected contribution, 3 if the team has not climbed before
      */
     public int findBestClimbLevel() {
+        processReport();
+        return bestClimbLevel;
+    }
+
+    private int calculateBestClimbLevel() {
         int bestLevel = 0;
         double bestClimbPoints = 0.0;
 
         final int[] climbPointValues = new int[]{3, 6, 12};
 
         for (int i = 0; i < 3; i++) {
-            double potentialPoints = attemptSuccessRates.get(levelPrefixes[i] + "Climb") * climbPointValues[i];
+            double potentialPoints = attemptSuccessRates[TeamMetricIds.CLIMBS[i]] * climbPointValues[i];
             if (potentialPoints >= bestClimbPoints) {
                 bestClimbPoints = potentialPoints;
                 bestLevel = i + 1;
@@ -409,28 +397,13 @@ public class TeamReport {
         return bestLevel;
     }
 
-    /**
-     * Generates a random sample of various metrics computed in <code>averages</code>, assuming a Normal distribution
-     * with standard deviations specified by the team's <code>standardDeviations</code>
-     *
-     * @return A HashMap with metric names as keys and their associated random values
-     */
-    public HashMap<String, Double> generateRandomSample() {
-        HashMap<String, Double> randomSample = new HashMap<>();
-
-        for (String value : averages.keySet()) {
-            randomSample.put(value, Stats.randomNormalValue(averages.get(value), standardDeviations.get(value)));
-        }
-
-        return randomSample;
-    }
-
     /**
      * Generates an easily-readable report with relevant stats on an team's capability
      *
      * @return A formatted string with relevant aggregate team stats
      */
     public String getQuickStatus() {
+        processReport();
 
         StringBuilder statusString = new StringBuilder("Team " + getTeamNum());
 
@@ -438,26 +411,34 @@ public class TeamReport {
             statusString.append(" - ").append(getTeamName());
         }
 
+        if (teamInfo != null && !teamInfo.getLocation().isEmpty()) {
+            statusString.append("\n").append(teamInfo.getLocation());
+        }
+
+        if (teamInfo != null && teamInfo.getRookieYear() != 0) {
+            statusString.append("\nRookie year: ").append(teamInfo.getRookieYear());
+        }
+
         statusString.append("\n\nSandstorm:");
 
-        for (String metric : autoMetricNames) {
-            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(metric)).append(": ").append(Stats.round
-                    (averages.get("auto" + metric), 2));
+        for (int i = 0; i < autoMetricNames.length; i++) {
+            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(autoMetricNames[i])).append(": ").append(Stats.round
+                    (averages[TeamMetricIds.AUTO_AVERAGES[i]], 2));
         }
 
-        statusString.append("\nHAB line cross: ").append(Stats.round(attemptSuccessRates.get("totalCross") * 100, 2)).append("% (").append(getCount("totalCross")).append("/").append(entries.size()).append(")");
+        statusString.append("\nHAB line cross: ").append(Stats.round(attemptSuccessRates[TeamMetricIds.CROSSES[3]] * 100, 2)).append("% (").append(counts[TeamMetricIds.CROSSES[3]]).append("/").append(entries.size()).append(")");
 
         for (int i = 0; i < 2; i++) {
             statusString.append("\nHAB lvl ").append(i + 1).append(" cross: ");
-            statusString.append(Stats.round(attemptSuccessRates.get(levelPrefixes[i] + "Cross") * 100, 2)).append("% "
-            ).append("(").append(getCount(levelPrefixes[i] + "Cross")).append("/").append(getCount(levelPrefixes[i] + "Start")).append(")");
+            statusString.append(Stats.round(attemptSuccessRates[TeamMetricIds.CROSSES[i]] * 100, 2)).append("% "
+            ).append("(").append(counts[TeamMetricIds.CROSSES[i]]).append("/").append(counts[TeamMetricIds.STARTS[i]]).append(")");
         }
 
         statusString.append("\n\nTele-Op:");
 
-        for (String metric : teleMetricNames) {
-            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(metric)).append(": ").append(Stats.round
-                    (averages.get("tele" + metric), 2));
+        for (int i = 0; i < teleMetricNames.length; i++) {
+            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(teleMetricNames[i])).append(": ").append(Stats.round
+                    (averages[TeamMetricIds.TELE_AVERAGES[i]], 2));
         }
 
         statusString.append("\n\nEndgame:");
@@ -469,17 +450,19 @@ public class TeamReport {
             } else {
                 statusString.append("\nLvl ").append(i + 1).append(" climb success: ");
             }
-            statusString.append(Stats.round(attemptSuccessRates.get(levelPrefixes[i] + "Climb") * 100, 0)).append("% "
-            ).append("(").append(getCount(levelPrefixes[i] + "ClimbSuccess")).append("/").append(getCount(levelPrefixes[i] +
-                    "ClimbAttempt")).append(")");
+            statusString.append(Stats.round(attemptSuccessRates[TeamMetricIds.CLIMBS[i]] * 100, 0)).append("% "
+            ).append("(").append(counts[TeamMetricIds.CLIMB_SUCCESSES[i]]).append("/").append(counts[TeamMetricIds.CLIMB_ATTEMPTS[i]]).append(")");
 
         }
 
         statusString.append("\n\nOverall:");
 
-        for (String metric : overallMetricNames) {
-            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(metric)).append(": ").append(Stats.round
-                    (averages.get(metric), 2));
+        for (int i = 0; i < overallMetricNames.length; i++) {
+            statusString.append("\nAvg. ").append(StringProcessing.convertCamelToSentenceCase(overallMetricNames[i])).append(": ").append(Stats.round
+                    (averages[TeamMetricIds.OVERALL_AVERAGES[i]], 2));
+            statusString.append(" (median ").append(Stats.round(getQuantile(TeamMetricIds.OVERALL_AVERAGES[i], 0.5), 2))
+                    .append(", 90th pct. ").append(Stats.round(getQuantile(TeamMetricIds.OVERALL_AVERAGES[i], 0.9), 2))
+                    .append(")");
         }
 
         if (!frequentCommentStr.isEmpty()) {
@@ -502,37 +485,144 @@ public class TeamReport {
     }
 
     /**
-     * Adds entries to the scouting entry list of this team
+     * Adds entries to the scouting entry list of this team and aggregates their metrics and counts. Derived stats of
+     * the entry should already be calculated.
      *
      * @param entry <code>ScoutEntry</code> to be added to this team report
      */
     public void addEntry(ScoutEntry entry) {
-        entry.getPostMatch().setRobotComment(StringProcessing.removeCommasBreaks(entry.getPostMatch().getRobotComment
-                ()));
+        // Only set if changed, as setters mark the entry's derived stats for recalculation
+        String robotComment = StringProcessing.removeCommasBreaks(entry.getPostMatch().getRobotComment());
+        if (!robotComment.equals(entry.getPostMatch().getRobotComment())) {
+            entry.getPostMatch().setRobotComment(robotComment);
+        }
+
+        if (countedEntries.containsKey(entry)) {
+            removeEntry(entry);
+        }
+
+        int[] ids = findCountedIds(entry);
+        for (int id : ids) {
+            counts[id]++;
+        }
+
+        // No shows are excluded from stats, so their metrics and quick comments are not aggregated
+        long quickComments = 0;
+        if (!entry.getPreMatch().isRobotNoShow()) {
+            entries.add(entry);
+            metricColumns.add(entry);
+
+            quickComments = entry.getPostMatch().getQuickCommentSelectedMask();
+            updateQuickCommentCounts(quickComments, 1);
+        }
+
+        countedEntries.put(entry, new CountedEntry(ids, quickComments));
 
-        entries.add(entry);
+        derivedValuesValid = false;
     }
 
-    public ArrayList<ScoutEntry> getEntries() {
-        return this.entries;
+    /**
+     * Removes an entry from this team report and reverses its contribution to the aggregated metrics and counts.
+     * Values stored when the entry was added are used, so this may be called after the entry is modified.
+     *
+     * @param entry <code>ScoutEntry</code> to be removed, compared by reference
+     * @return True if the entry was in this team report, false otherwise
+     */
+    public boolean removeEntry(ScoutEntry entry) {
+        CountedEntry counted = countedEntries.remove(entry);
+        if (counted == null) {
+            return false;
+        }
+
+        for (int id : counted.ids) {
+            counts[id]--;
+        }
+        updateQuickCommentCounts(counted.quickComments, -1);
+
+        entries.removeIf(existingEntry -> existingEntry == entry);
+        metricColumns.remove(entry);
+
+        derivedValuesValid = false;
+        return true;
     }
 
     /**
-     * Fetches the nickname of the team from the specified team list and assigns it to <code>teamName</code>
+     * Updates the aggregated metrics and counts of an entry in this team report after it is corrected. Derived stats
+     * of the entry should already be recalculated.
      *
-     * @param dataLocation location of the TeamNameList file generated by <code>exportTeamList</code>
+     * @param entry <code>ScoutEntry</code> that was modified
      */
-    public void autoGetTeamName(File dataLocation) {
-        String data = FileManager.getFileString(dataLocation);
-        String[] values = data.split(",\n");
+    public void updateEntry(ScoutEntry entry) {
+        removeEntry(entry);
+        addEntry(entry);
+    }
 
-        for (String value : values) {
-            if (value.split(",")[0].equals(Integer.toString(teamNum))) {
+    /**
+     * Determines if the team report has no entries, including those where the robot did not show up
+     *
+     * @return True if no entries were added, or all were removed
+     */
+    public boolean isEmpty() {
+        return countedEntries.isEmpty();
+    }
 
-                teamName = value.split(",")[1];
-                return;
+    /**
+     * Counts the entries that selected a quick comment, from the aggregated counts if the comment has a bit
+     *
+     * @param comment Text of the quick comment
+     * @return Number of entries, excluding no shows, that selected the comment
+     */
+    private int countQuickComment(String comment) {
+        int bit = quickCommentDictionary.getBit(comment);
+        if (bit != QuickCommentDictionary.NO_BIT) {
+            return quickCommentCounts[bit];
+        }
+
+        int count = 0;
+        for (ScoutEntry entry : entries) {
+            if (Boolean.TRUE.equals(entry.getPostMatch().getRobotQuickCommentSelections().get(comment))) {
+                count++;
             }
         }
+        return count;
+    }
+
+    /**
+     * Adds to the counts of the quick comments selected in an entry, visiting only the set bits of its mask
+     *
+     * @param quickComments Mask of the selected quick comments
+     * @param change        Amount added to the count of each selected comment
+     */
+    private void updateQuickCommentCounts(long quickComments, int change) {
+        while (quickComments != 0) {
+            quickCommentCounts[Long.numberOfTrailingZeros(quickComments)] += change;
+            quickComments &= quickComments - 1;
+        }
+    }
+
+    public ArrayList<ScoutEntry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Assigns the nickname and metadata of the team from the event's team directory
+     *
+     * @param teamDirectory Team directory parsed from the team list generated by <code>exportTeamList</code>
+     */
+    public void autoGetTeamName(TeamDirectory teamDirectory) {
+        teamInfo = teamDirectory.get(teamNum);
+        if (teamInfo != null) {
+            teamName = teamInfo.getNickname();
+        }
+    }
+
+    /**
+     * Retrieves the metadata of the team, such as rookie year and location
+     *
+     * @return Metadata of the team, <code>null</code> if the team was not found in a team directory
+     */
+    public TeamDirectory.TeamInfo getTeamInfo() {
+        return teamInfo;
     }
 
     /**
@@ -542,21 +632,126 @@ public class TeamReport {
      * @return The value of the ability metric, false if the metric name does not exist
      */
     public boolean getAbility(String metric) {
-        if (!abilities.containsKey(metric)) {
+        int id = TeamMetricIds.getId(metric);
+        if (id == -1) {
             return false;
         }
-        return abilities.get(metric);
+        return getAbility(id);
+    }
+
+    public boolean getAbility(int id) {
+        processReport();
+        return abilities[id];
     }
 
     public double getAverage(String metric) {
-        return averages.get(metric);
+        return getAverage(getMetricId(metric));
+    }
+
+    public double getAverage(int id) {
+        processReport();
+        return averages[id];
     }
 
     public double getStandardDeviation(String metric) {
-        return standardDeviations.get(metric);
+        return getStandardDeviation(getMetricId(metric));
+    }
+
+    public double getStandardDeviation(int id) {
+        processReport();
+        return standardDeviations[id];
     }
 
     public double getAttemptSuccessRate(String metric) {
-        return attemptSuccessRates.get(metric);
+        return getAttemptSuccessRate(getMetricId(metric));
+    }
+
+    public double getAttemptSuccessRate(int id) {
+        processReport();
+        return attemptSuccessRates[id];
+    }
+
+    public double getQuantile(String metric, double quantile) {
+        return getQuantile(getMetricId(metric), quantile);
+    }
+
+    /**
+     * Retrieves a quantile of an averaged metric (e.g. the median or 90th percentile), without assuming a Normal
+     * distribution
+     *
+     * @param id       ID of a metric in <code>TeamMetricIds.AUTO_AVERAGES</code>, <code>TELE_AVERAGES</code>, or
+     *                 <code>OVERALL_AVERAGES</code>
+     * @param quantile Quantile to retrieve, from 0 to 1
+     * @return The exact quantile, 0 if the team has no entries
+     */
+    public double getQuantile(int id, double quantile) {
+        return lookUpAveragedMetric(id, (modelClass, metricName) ->
+                metricColumns.getQuantile(modelClass, metricName, quantile));
+    }
+
+    /**
+     * Builds a quantile sketch of an averaged metric, which can be merged with the sketches of the team at other
+     * events
+     *
+     * @param id ID of a metric in <code>TeamMetricIds.AUTO_AVERAGES</code>, <code>TELE_AVERAGES</code>, or
+     *           <code>OVERALL_AVERAGES</code>
+     * @return New sketch of the metric's values in this team report
+     */
+    public QuantileSketch getQuantileSketch(int id) {
+        return lookUpAveragedMetric(id, metricColumns::createQuantileSketch);
+    }
+
+    /**
+     * Finds the column of an averaged metric in the metric columns and looks up a value from it
+     *
+     * @param id     ID of the averaged metric
+     * @param lookup Function of the metric's data model class and name
+     * @return The value looked up
+     * @throws IllegalArgumentException if the metric is not averaged
+     */
+    private <T> T lookUpAveragedMetric(int id, BiFunction<Class<?>, String, T> lookup) {
+        String[][] metricSets = new String[][]{autoMetricNames, teleMetricNames, overallMetricNames};
+        int[][] metricIdSets = new int[][]{TeamMetricIds.AUTO_AVERAGES, TeamMetricIds.TELE_AVERAGES,
+                TeamMetricIds.OVERALL_AVERAGES};
+        Class<?>[] modelClasses = new Class<?>[]{Autonomous.class, TeleOp.class, ScoutEntry.class};
+
+        for (int i = 0; i < metricSets.length; i++) {
+            for (int j = 0; j < metricSets[i].length; j++) {
+                if (metricIdSets[i][j] == id) {
+                    return lookup.apply(modelClasses[i], metricSets[i][j]);
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("No averaged team metric " + TeamMetricIds.getName(id));
+    }
+
+    /**
+     * Retrieves the ID of a metric name, for the string-based getters
+     *
+     * @param metric String name of the desired metric
+     * @return ID of the metric
+     * @throws IllegalArgumentException if the metric name does not exist
+     */
+    private static int getMetricId(String metric) {
+        int id = TeamMetricIds.getId(metric);
+        if (id == -1) {
+            throw new IllegalArgumentException("No team metric " + metric);
+        }
+        return id;
+    }
+
+    /**
+     * Counts and quick comments that an entry contributed to the team report
+     */
+    private static class CountedEntry {
+
+        private final int[] ids;
+        private final long quickComments;
+
+        CountedEntry(int[] ids, long quickComments) {
+            this.ids = ids;
+            this.quickComments = quickComments;
+        }
     }
 }
@@ -3,7 +3,7 @@ package org.usfirst.frc.team25.scouting.data.models;
 /**
  * Object model for autonomous (or sandstorm) period of a match
  */
-public class Autonomous {
+public class Autonomous extends DataModel {
 
 
     private boolean crossHabLine;
@@ -108,58 +108,72 @@ public class Autonomous {
 
     public void setCrossHabLine(boolean crossHabLine) {
         this.crossHabLine = crossHabLine;
+        markModified();
     }
 
     public void setSideCargoShipHatchCapable(boolean sideCargoShipHatchCapable) {
         this.sideCargoShipHatchCapable = sideCargoShipHatchCapable;
+        markModified();
     }
 
     public void setCargoDroppedCargoShip(boolean cargoDroppedCargoShip) {
         this.cargoDroppedCargoShip = cargoDroppedCargoShip;
+        markModified();
     }
 
     public void setCargoDroppedRocket(boolean cargoDroppedRocket) {
         this.cargoDroppedRocket = cargoDroppedRocket;
+        markModified();
     }
 
     public void setCargoShipHatches(int cargoShipHatches) {
         this.cargoShipHatches = cargoShipHatches;
+        markModified();
     }
 
     public void setRocketHatches(int rocketHatches) {
         this.rocketHatches = rocketHatches;
+        markModified();
     }
 
     public void setCargoShipCargo(int cargoShipCargo) {
         this.cargoShipCargo = cargoShipCargo;
+        markModified();
     }
 
     public void setRocketCargo(int rocketCargo) {
         this.rocketCargo = rocketCargo;
+        markModified();
     }
 
     public void setFrontCargoShipHatchCapable(boolean frontCargoShipHatchCapable) {
         this.frontCargoShipHatchCapable = frontCargoShipHatchCapable;
+        markModified();
     }
 
     public void setHatchesDroppedCargoShip(boolean hatchesDroppedCargoShip) {
         this.hatchesDroppedCargoShip = hatchesDroppedCargoShip;
+        markModified();
     }
 
     public void setHatchesDropped(int hatchesDropped) {
         this.hatchesDropped = hatchesDropped;
+        markModified();
     }
 
     public void setCargoDropped(int cargoDropped) {
         this.cargoDropped = cargoDropped;
+        markModified();
     }
 
     public void setHatchesDroppedRocket(boolean hatchesDroppedRocket) {
         this.hatchesDroppedRocket = hatchesDroppedRocket;
+        markModified();
     }
 
     public void setOpponentCargoShipLineFoul(boolean opponentCargoShipLineFoul) {
         this.opponentCargoShipLineFoul = opponentCargoShipLineFoul;
+        markModified();
     }
 
 }
@@ -0,0 +1,30 @@
+package org.usfirst.frc.team25.scouting.data.models;
+
+/**
+ * Base class of the data models of a scout entry. Setters mark the model as modified, so that values derived from it
+ * (e.g. the derived stats of a <code>ScoutEntry</code>) are only recalculated after a change.
+ */
+public abstract class DataModel {
+
+    /**
+     * Number of times the model was modified. Not serialized, as values derived from a deserialized model are always
+     * calculated.
+     */
+    private transient int modificationCount;
+
+    /**
+     * Marks the model as modified. Called by every setter of a data model field.
+     */
+    protected void markModified() {
+        modificationCount++;
+    }
+
+    /**
+     * Gets the number of times the model was modified, which changes whenever a setter is called
+     *
+     * @return Modification count of the model
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+}
@@ -6,7 +6,7 @@ import java.util.HashMap;
  * Qualitative reflection on the robot's performance after a match
  * Not to be used for end game actions
  */
-public class PostMatch {
+public class PostMatch extends DataModel {
 
 
     private final int teamOneCompare;
@@ -15,6 +15,12 @@ public class PostMatch {
     private final String comparison;
     private HashMap<String, Boolean> robotQuickCommentSelections;
     private transient String robotQuickCommentStr;
+
+    /**
+     * Quick comments that are present in the selections, and those that were selected, encoded with the
+     * <code>QuickCommentDictionary</code> of the event report containing the entry
+     */
+    private transient long quickCommentPresentMask, quickCommentSelectedMask;
     private String robotComment, focus;
 
     public PostMatch(String robotComment, HashMap<String, Boolean> robotQuickCommentSelections,
@@ -34,6 +40,20 @@ public class PostMatch {
 
     public void setRobotQuickCommentSelections(HashMap<String, Boolean> robotQuickCommentSelections) {
         this.robotQuickCommentSelections = robotQuickCommentSelections;
+        markModified();
+    }
+
+    public long getQuickCommentPresentMask() {
+        return quickCommentPresentMask;
+    }
+
+    public long getQuickCommentSelectedMask() {
+        return quickCommentSelectedMask;
+    }
+
+    public void setQuickCommentMasks(long quickCommentPresentMask, long quickCommentSelectedMask) {
+        this.quickCommentPresentMask = quickCommentPresentMask;
+        this.quickCommentSelectedMask = quickCommentSelectedMask;
     }
 
     public String getFocus() {
@@ -42,6 +62,7 @@ public class PostMatch {
 
     public void setFocus(String focus) {
         this.focus = focus;
+        markModified();
     }
 
     public String getRobotQuickCommentStr() {
@@ -58,15 +79,22 @@ public class PostMatch {
 
     public void setRobotComment(String robotComment) {
         this.robotComment = robotComment;
+        markModified();
     }
 
+    /**
+     * Concatenates the selected quick comments into <code>robotQuickCommentStr</code>
+     */
     void generateQuickCommentStr() {
-        robotQuickCommentStr = "";
+        StringBuilder quickCommentStr = new StringBuilder();
+
         for (String comment : robotQuickCommentSelections.keySet()) {
             if (robotQuickCommentSelections.get(comment)) {
-                robotQuickCommentStr += comment + "; ";
+                quickCommentStr.append(comment).append("; ");
             }
         }
+
+        robotQuickCommentStr = quickCommentStr.toString();
     }
 
     public int getTeamOneCompare() {
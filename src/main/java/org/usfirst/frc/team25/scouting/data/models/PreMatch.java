@@ -4,7 +4,7 @@ package org.usfirst.frc.team25.scouting.data.models;
 /**
  * General information about a match and scout before it begins
  */
-public class PreMatch {
+public class PreMatch extends DataModel {
 
     private String scoutName;
     private int matchNum;
@@ -29,34 +29,42 @@ public class PreMatch {
 
     public void setScoutName(String scoutName) {
         this.scoutName = scoutName;
+        markModified();
     }
 
     public void setMatchNum(int matchNum) {
         this.matchNum = matchNum;
+        markModified();
     }
 
     public void setScoutPos(String scoutPos) {
         this.scoutPos = scoutPos;
+        markModified();
     }
 
     public void setTeamNum(int teamNum) {
         this.teamNum = teamNum;
+        markModified();
     }
 
     public void setRobotNoShow(boolean robotNoShow) {
         this.robotNoShow = robotNoShow;
+        markModified();
     }
 
     public void setStartingLevel(int startingLevel) {
         this.startingLevel = startingLevel;
+        markModified();
     }
 
     public void setStartingPos(String startingPos) {
         this.startingPos = startingPos;
+        markModified();
     }
 
     public void setStartingGamePiece(String startingGamePiece) {
         this.startingGamePiece = startingGamePiece;
+        markModified();
     }
 
     public String getScoutName() {
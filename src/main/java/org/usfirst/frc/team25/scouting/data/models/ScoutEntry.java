@@ -28,8 +28,30 @@ public class ScoutEntry implements Serializable {
     private transient int calculatedClimbPoints;
     private transient int calculatedPointContribution;
 
-
+    /**
+     * True if the derived stats were calculated, and the sum of the modification counts of the data models when they
+     * were. Modification counts only increase, so a different sum means a model was changed since.
+     */
+    private transient boolean derivedStatsCalculated;
+    private transient long derivedStatsVersion;
+
+    public ScoutEntry(PreMatch preMatch, Autonomous sandstorm, TeleOp teleOp, PostMatch postMatch) {
+        this.preMatch = preMatch;
+        this.sandstorm = sandstorm;
+        this.teleOp = teleOp;
+        this.postMatch = postMatch;
+    }
+
+    /**
+     * Calculates the derived stats of the entry (totals, points, quick comment string, etc.) if they have not been
+     * calculated since the data models were last modified through their setters
+     */
     public void calculateDerivedStats() {
+        long version = getModelVersion();
+        if (derivedStatsCalculated && derivedStatsVersion == version) {
+            return;
+        }
+
         //Sandstorm
         sandstormCargo = sandstorm.getRocketCargo() + sandstorm.getCargoShipCargo();
 
@@ -80,6 +102,26 @@ public class ScoutEntry implements Serializable {
 
         postMatch.generateQuickCommentStr();
 
+        derivedStatsVersion = version;
+        derivedStatsCalculated = true;
+    }
+
+    /**
+     * Forces the derived stats to be recalculated on the next call to <code>calculateDerivedStats</code>. Needed only
+     * if a data model is changed without its setters, such as by modifying the quick comment selection map.
+     */
+    public void invalidateDerivedStats() {
+        derivedStatsCalculated = false;
+    }
+
+    /**
+     * Sums the modification counts of the data models, which changes whenever one of them is modified
+     *
+     * @return Version of the data models
+     */
+    private long getModelVersion() {
+        return (long) preMatch.getModificationCount() + sandstorm.getModificationCount() +
+                teleOp.getModificationCount() + postMatch.getModificationCount();
     }
 
     public PreMatch getPreMatch() {
@@ -5,7 +5,7 @@ package org.usfirst.frc.team25.scouting.data.models;
  * Container holding data from the tele-operated period
  * Includes endgame data
  */
-public class TeleOp {
+public class TeleOp extends DataModel {
 
     private int cargoShipHatches;
     private int rocketLevelOneHatches;
@@ -60,78 +60,97 @@ public class TeleOp {
 
     public void setCargoShipHatches(int cargoShipHatches) {
         this.cargoShipHatches = cargoShipHatches;
+        markModified();
     }
 
     public void setRocketLevelOneHatches(int rocketLevelOneHatches) {
         this.rocketLevelOneHatches = rocketLevelOneHatches;
+        markModified();
     }
 
     public void setRocketLevelTwoHatches(int rocketLevelTwoHatches) {
         this.rocketLevelTwoHatches = rocketLevelTwoHatches;
+        markModified();
     }
 
     public void setRocketLevelThreeHatches(int rocketLevelThreeHatches) {
         this.rocketLevelThreeHatches = rocketLevelThreeHatches;
+        markModified();
     }
 
     public void setCargoShipCargo(int cargoShipCargo) {
         this.cargoShipCargo = cargoShipCargo;
+        markModified();
     }
 
     public void setRocketLevelOneCargo(int rocketLevelOneCargo) {
         this.rocketLevelOneCargo = rocketLevelOneCargo;
+        markModified();
     }
 
     public void setRocketLevelTwoCargo(int rocketLevelTwoCargo) {
         this.rocketLevelTwoCargo = rocketLevelTwoCargo;
+        markModified();
     }
 
     public void setRocketLevelThreeCargo(int rocketLevelThreeCargo) {
         this.rocketLevelThreeCargo = rocketLevelThreeCargo;
+        markModified();
     }
 
     public void setHatchesDropped(int hatchesDropped) {
         this.hatchesDropped = hatchesDropped;
+        markModified();
     }
 
     public void setCargoDropped(int cargoDropped) {
         this.cargoDropped = cargoDropped;
+        markModified();
     }
 
     public void setAttemptHabClimb(boolean attemptHabClimb) {
         this.attemptHabClimb = attemptHabClimb;
+        markModified();
     }
 
     public void setAttemptHabClimbLevel(int attemptHabClimbLevel) {
         this.attemptHabClimbLevel = attemptHabClimbLevel;
+        markModified();
     }
 
     public void setSuccessHabClimb(boolean successHabClimb) {
         this.successHabClimb = successHabClimb;
+        markModified();
     }
 
     public void setSuccessHabClimbLevel(int successHabClimbLevel) {
         this.successHabClimbLevel = successHabClimbLevel;
+        markModified();
     }
 
     public void setClimbAssistedByPartner(boolean climbAssistedByPartner) {
         this.climbAssistedByPartner = climbAssistedByPartner;
+        markModified();
     }
 
     public void setAssistingClimbTeamNum(int assistingClimbTeamNum) {
         this.assistingClimbTeamNum = assistingClimbTeamNum;
+        markModified();
     }
 
     public void setNumPartnerClimbAssists(int numPartnerClimbAssists) {
         this.numPartnerClimbAssists = numPartnerClimbAssists;
+        markModified();
     }
 
     public void setPartnerClimbAssistStartLevel(int partnerClimbAssistStartLevel) {
         this.partnerClimbAssistStartLevel = partnerClimbAssistStartLevel;
+        markModified();
     }
 
     public void setPartnerClimbAssistEndLevel(int partnerClimbAssistEndLevel) {
         this.partnerClimbAssistEndLevel = partnerClimbAssistEndLevel;
+        markModified();
     }
 
     public int getCargoShipHatches() {